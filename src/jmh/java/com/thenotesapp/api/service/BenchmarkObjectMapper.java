@@ -0,0 +1,20 @@
+package com.thenotesapp.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * An {@link ObjectMapper} configured like the one Spring Boot injects into the services.
+ */
+final class BenchmarkObjectMapper {
+
+    private BenchmarkObjectMapper() {
+    }
+
+    static ObjectMapper create() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.thenotesapp.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.NoteDetailDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.stats.SampleTexts;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DTO mapping done on every create and update: {@code CreateNoteDto} to {@link Note} and
+ * {@link Note} to {@code NoteDetailDto}, with {@code convertValue} (the original implementation) against
+ * {@link NoteMapper}. Run with {@code -prof gc} (the profile default) for allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteMappingBenchmark {
+
+    @Param({"100", "10000"})
+    private int textLength;
+
+    private ObjectMapper objectMapper;
+    private CreateNoteDto createDto;
+    private Note note;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkObjectMapper.create();
+        String text = SampleTexts.generate("latin", textLength, 42);
+        createDto = new CreateNoteDto("Weekly planning", text, List.of(NoteTag.BUSINESS, NoteTag.IMPORTANT));
+        note = new Note("65f0c0ffee0000000000beef", createDto.getTitle(), text, LocalDateTime.now(), createDto.getTags());
+        note.setVersion(3L);
+    }
+
+    @Benchmark
+    public Note createDtoToNoteConvertValue() {
+        return objectMapper.convertValue(createDto, Note.class);
+    }
+
+    @Benchmark
+    public NoteDetailDto noteToDetailDtoConvertValue() {
+        return objectMapper.convertValue(note, NoteDetailDto.class);
+    }
+
+    @Benchmark
+    public Note createDtoToNoteMapper() {
+        return NoteMapper.toNote(createDto);
+    }
+
+    @Benchmark
+    public NoteDetailDto noteToDetailDtoMapper() {
+        return NoteMapper.toDetail(note, note.getText());
+    }
+}
@@ -0,0 +1,50 @@
+package com.thenotesapp.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thenotesapp.api.dto.NoteSummaryDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the {@code Page<NoteSummaryDto>} returned by {@code GET /api/notes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotePageSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<NoteSummaryDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkObjectMapper.create();
+        LocalDateTime now = LocalDateTime.now();
+        List<NoteSummaryDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(new NoteSummaryDto(String.format("65f0c0ffee%014d", i), "Note title " + i, now.minusMinutes(i)));
+        }
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize, Sort.by(Sort.Direction.DESC, "createdDate")),
+                100_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,41 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.stats.SampleTexts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NoteService#getNoteStatistics} as called on every write, including its metrics.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteStatisticsBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int textLength;
+
+    @Param({"latin", "cyrillic", "mixed"})
+    private String language;
+
+    private NoteService noteService;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        // getNoteStatistics touches neither Mongo nor the cache
+        noteService = new NoteService(null, null, null, null, new SimpleMeterRegistry());
+        text = SampleTexts.generate(language, textLength, 42);
+    }
+
+    @Benchmark
+    public Map<String, Long> getNoteStatistics() {
+        return noteService.getNoteStatistics(text);
+    }
+}
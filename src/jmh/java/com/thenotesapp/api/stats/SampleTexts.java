@@ -0,0 +1,51 @@
+package com.thenotesapp.api.stats;
+
+import java.util.Random;
+
+/**
+ * Deterministic pseudo-natural note texts for benchmarks.
+ */
+public final class SampleTexts {
+
+    private static final String[] LATIN = {
+            "the", "note", "meeting", "project", "deadline", "Budget", "review", "call", "client", "plan",
+            "tomorrow", "update", "report", "Team", "ideas", "draft", "release", "bug", "fix", "notes"
+    };
+    private static final String[] CYRILLIC = {
+            "заметка", "встреча", "проект", "срок", "Бюджет", "обзор", "звонок", "клиент", "план", "завтра",
+            "отчёт", "Команда", "идеи", "черновик", "релиз", "ошибка", "исправить", "задача", "список", "дела"
+    };
+    private static final String[] PUNCTUATION = {" ", " ", " ", " ", ", ", ". ", "! ", "\n", " - ", "? "};
+
+    private SampleTexts() {
+    }
+
+    public static String generate(String language, int length, long seed) {
+        String[] vocabulary = switch (language) {
+            case "latin" -> LATIN;
+            case "cyrillic" -> CYRILLIC;
+            case "mixed" -> concat(LATIN, CYRILLIC);
+            default -> throw new IllegalArgumentException("Unknown language: " + language);
+        };
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(length + 32);
+        while (text.length() < length) {
+            // a long tail of rare words next to the frequent vocabulary
+            if (random.nextInt(10) == 0) {
+                text.append(vocabulary[random.nextInt(vocabulary.length)]).append(random.nextInt(10_000));
+            } else {
+                text.append(vocabulary[random.nextInt(vocabulary.length)]);
+            }
+            text.append(PUNCTUATION[random.nextInt(PUNCTUATION.length)]);
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] result = new String[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,59 @@
+package com.thenotesapp.api.stats;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Regex + stream word statistics (the original NoteService implementation) against {@link WordFrequencyCounter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WordFrequencyBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int textLength;
+
+    @Param({"latin", "cyrillic"})
+    private String language;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = SampleTexts.generate(language, textLength, 42);
+    }
+
+    @Benchmark
+    public Map<String, Long> regexStream() {
+        String[] words = text.toLowerCase()
+                .replaceAll("[^a-zA-Zа-яА-Я0-9\\s]", "")
+                .split("\\s+");
+
+        Map<String, Long> frequencyMap = Arrays.stream(words)
+                .filter(w -> !w.isBlank())
+                .collect(Collectors.groupingBy(w -> w, Collectors.counting()));
+
+        return frequencyMap.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        Map.Entry::getValue,
+                        (e1, e2) -> e1,
+                        LinkedHashMap::new
+                ));
+    }
+
+    @Benchmark
+    public Map<String, Long> singlePassCounter() {
+        return WordFrequencyCounter.count(text);
+    }
+}
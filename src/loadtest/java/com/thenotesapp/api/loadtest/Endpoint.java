@@ -0,0 +1,50 @@
+package com.thenotesapp.api.loadtest;
+
+/**
+ * Every {@code NoteController} endpoint with its share of the mixed workload, in percent.
+ */
+enum Endpoint {
+    GET_BY_ID("GET /api/notes/{id}", 25),
+    GET_TEXT("GET /api/notes/{id}/text", 10),
+    GET_STATS("GET /api/notes/{id}/stats", 10),
+    LIST_PAGE("GET /api/notes?page", 8),
+    LIST_CURSOR("GET /api/notes?after", 8),
+    SEARCH("GET /api/notes/search", 9),
+    CREATE("POST /api/notes", 10),
+    UPDATE("PUT /api/notes/{id}", 7),
+    PATCH("PATCH /api/notes/{id}", 7),
+    DELETE("DELETE /api/notes/{id}", 6);
+
+    private static final Endpoint[] BY_PERCENT = new Endpoint[100];
+
+    static {
+        int next = 0;
+        for (Endpoint endpoint : values()) {
+            for (int i = 0; i < endpoint.weight; i++) {
+                BY_PERCENT[next++] = endpoint;
+            }
+        }
+        if (next != BY_PERCENT.length) {
+            throw new IllegalStateException("Endpoint weights add up to " + next + ", not 100");
+        }
+    }
+
+    private final String label;
+    private final int weight;
+
+    Endpoint(String label, int weight) {
+        this.label = label;
+        this.weight = weight;
+    }
+
+    String label() {
+        return label;
+    }
+
+    /**
+     * @param percent a uniformly random number in [0, 100)
+     */
+    static Endpoint pick(int percent) {
+        return BY_PERCENT[percent];
+    }
+}
@@ -0,0 +1,53 @@
+package com.thenotesapp.api.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Exact latencies of one endpoint, recorded by a single worker thread and merged after the run.
+ */
+final class LatencySamples {
+
+    private long[] nanos = new long[1024];
+    private int size;
+    private long errors;
+
+    void record(long latencyNanos, boolean success) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    void addAll(LatencySamples other) {
+        if (size + other.size > nanos.length) {
+            nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, size + other.size));
+        }
+        System.arraycopy(other.nanos, 0, nanos, size, other.size);
+        size += other.size;
+        errors += other.errors;
+    }
+
+    LoadTestReport.EndpointResult summarize(String endpoint, double seconds) {
+        long[] sorted = Arrays.copyOf(nanos, size);
+        Arrays.sort(sorted);
+        return new LoadTestReport.EndpointResult(endpoint, size, errors, size / seconds,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                millis(percentile(sorted, 0.99)), millis(size == 0 ? 0 : sorted[size - 1]));
+    }
+
+    // nearest-rank percentile
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,188 @@
+package com.thenotesapp.api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.thenotesapp.api.TheNotesAppApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeds notes and drives a mixed workload over every {@code NoteController} endpoint, then writes
+ * p50/p95/p99 latency and throughput per endpoint as JSON. Without {@code loadtest.base-url} it starts
+ * Mongo in a container and the app in this JVM; point it at a separately started app for numbers that
+ * do not share a CPU with the load generator.
+ * <p>
+ * Run through the {@code loadtest} Maven profile, which passes the {@code loadtest.*} properties.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestReport.Settings settings = new LoadTestReport.Settings(
+                System.getProperty("loadtest.base-url", ""),
+                System.getProperty("loadtest.profiles", ""),
+                Integer.getInteger("loadtest.notes", 10_000),
+                Integer.getInteger("loadtest.threads", 32),
+                Integer.getInteger("loadtest.warmup", 10),
+                Integer.getInteger("loadtest.duration", 60),
+                Integer.getInteger("loadtest.median-text-length", 800),
+                Integer.getInteger("loadtest.max-text-length", 100_000),
+                Long.getLong("loadtest.seed", 42));
+        Path result = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+
+        MongoDBContainer mongo = null;
+        ConfigurableApplicationContext app = null;
+        try {
+            String baseUrl = settings.baseUrl();
+            if (baseUrl.isBlank()) {
+                mongo = new MongoDBContainer("mongo:7.0");
+                mongo.start();
+                List<String> appArgs = new ArrayList<>(List.of(
+                        "--server.port=0",
+                        "--spring.data.mongodb.uri=" + mongo.getReplicaSetUrl("notes_db"),
+                        "--spring.docker.compose.enabled=false"));
+                if (!settings.profiles().isBlank()) {
+                    appArgs.add("--spring.profiles.active=" + settings.profiles());
+                }
+                app = SpringApplication.run(TheNotesAppApplication.class, appArgs.toArray(String[]::new));
+                baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            }
+            LoadTestReport report = run(settings, baseUrl);
+            Files.createDirectories(result.toAbsolutePath().getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(result.toFile(), report);
+            System.out.printf("%-28s %10s %8s %10s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+            for (LoadTestReport.EndpointResult endpoint : report.endpoints()) {
+                print(endpoint);
+            }
+            print(report.total());
+            System.out.println("Results written to " + result.toAbsolutePath());
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (mongo != null) {
+                mongo.stop();
+            }
+        }
+    }
+
+    private static LoadTestReport run(LoadTestReport.Settings settings, String baseUrl) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        NoteGenerator generator = new NoteGenerator(settings.medianTextLength(), settings.maxTextLength());
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        NotesClient client = new NotesClient(http, baseUrl, objectMapper, generator);
+
+        Path seed = Files.createTempFile("loadtest-notes", ".ndjson");
+        try {
+            writeSeed(seed, settings, generator, objectMapper);
+            int notes = client.seed(seed);
+            System.out.printf("Seeded %d notes at %s%n", notes, baseUrl);
+        } finally {
+            Files.deleteIfExists(seed);
+        }
+
+        System.out.printf("Warming up for %d s with %d threads%n", settings.warmupSeconds(), settings.threads());
+        runPhase(client, settings, settings.warmupSeconds(), 1);
+        System.out.printf("Measuring for %d s%n", settings.durationSeconds());
+        long started = System.nanoTime();
+        List<Map<Endpoint, LatencySamples>> perWorker = runPhase(client, settings, settings.durationSeconds(), 2);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        LatencySamples total = new LatencySamples();
+        List<LoadTestReport.EndpointResult> endpoints = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencySamples merged = new LatencySamples();
+            for (Map<Endpoint, LatencySamples> worker : perWorker) {
+                merged.addAll(worker.get(endpoint));
+            }
+            total.addAll(merged);
+            endpoints.add(merged.summarize(endpoint.label(), seconds));
+        }
+        return new LoadTestReport(settings, seconds, total.summarize("all", seconds), endpoints);
+    }
+
+    private static void writeSeed(Path file, LoadTestReport.Settings settings, NoteGenerator generator,
+                                  ObjectMapper objectMapper) throws IOException {
+        Random random = new Random(settings.seed());
+        try (OutputStream out = Files.newOutputStream(file);
+             SequenceWriter notes = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            for (int i = 0; i < settings.seedNotes(); i++) {
+                notes.write(generator.next(random));
+            }
+        }
+    }
+
+    private static List<Map<Endpoint, LatencySamples>> runPhase(NotesClient client, LoadTestReport.Settings settings,
+                                                               int seconds, int phase) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(settings.threads());
+        try {
+            List<Future<Map<Endpoint, LatencySamples>>> futures = new ArrayList<>();
+            for (int i = 0; i < settings.threads(); i++) {
+                // reproducible request mix per worker
+                Random random = new Random(settings.seed() * 31 + phase * 1_000L + i);
+                futures.add(workers.submit(() -> work(client, random, deadline)));
+            }
+            List<Map<Endpoint, LatencySamples>> samples = new ArrayList<>();
+            for (Future<Map<Endpoint, LatencySamples>> future : futures) {
+                samples.add(future.get());
+            }
+            return samples;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static Map<Endpoint, LatencySamples> work(NotesClient client, Random random, long deadline)
+            throws InterruptedException {
+        Map<Endpoint, LatencySamples> samples = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            samples.put(endpoint, new LatencySamples());
+        }
+        NotesClient.Cursor cursor = new NotesClient.Cursor();
+        while (System.nanoTime() < deadline) {
+            Endpoint endpoint = Endpoint.pick(random.nextInt(100));
+            if (endpoint == Endpoint.DELETE && !client.canDelete()) {
+                continue;
+            }
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = client.call(endpoint, random, cursor);
+            } catch (IOException e) {
+                success = false;
+            }
+            samples.get(endpoint).record(System.nanoTime() - start, success);
+        }
+        return samples;
+    }
+
+    private static void print(LoadTestReport.EndpointResult endpoint) {
+        System.out.printf("%-28s %10d %8d %10.1f %9.2f %9.2f %9.2f%n", endpoint.endpoint(), endpoint.requests(),
+                endpoint.errors(), endpoint.throughput(), endpoint.p50Millis(), endpoint.p95Millis(),
+                endpoint.p99Millis());
+    }
+}
@@ -0,0 +1,21 @@
+package com.thenotesapp.api.loadtest;
+
+import java.util.List;
+
+/**
+ * The machine-readable result of a run, written as JSON.
+ */
+record LoadTestReport(Settings settings, double durationSeconds, EndpointResult total, List<EndpointResult> endpoints) {
+
+    record Settings(String baseUrl, String profiles, int seedNotes, int threads, int warmupSeconds,
+                    int durationSeconds, int medianTextLength, int maxTextLength, long seed) {
+    }
+
+    /**
+     * Latencies in milliseconds, throughput in requests per second. Errors are responses other than
+     * 2xx and 304, and failed requests; they are included in the latencies.
+     */
+    record EndpointResult(String endpoint, long requests, long errors, double throughput,
+                          double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.thenotesapp.api.loadtest;
+
+import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.model.NoteTag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Notes shaped like real ones: log-normally distributed text lengths (median {@code medianTextLength}
+ * characters, a long tail up to {@code maxTextLength}) from a skewed vocabulary, and zero to three tags
+ * with personal notes most common.
+ */
+final class NoteGenerator {
+
+    private static final String[] VOCABULARY = {
+            "the", "note", "meeting", "project", "deadline", "budget", "review", "call", "client", "plan",
+            "tomorrow", "update", "report", "team", "ideas", "draft", "release", "bug", "fix", "groceries",
+            "заметка", "встреча", "проект", "срок", "отчёт", "задача", "список", "дела"
+    };
+    private static final String[] SEPARATORS = {" ", " ", " ", " ", ", ", ". ", "\n", " - "};
+    private static final double TEXT_LENGTH_SIGMA = 1.2;
+
+    private final double textLengthMu;
+    private final int maxTextLength;
+
+    NoteGenerator(int medianTextLength, int maxTextLength) {
+        this.textLengthMu = Math.log(medianTextLength);
+        this.maxTextLength = maxTextLength;
+    }
+
+    CreateNoteDto next(Random random) {
+        return new CreateNoteDto(title(random), text(random), tags(random));
+    }
+
+    String word(Random random) {
+        // squaring skews towards the front of the vocabulary, like real word frequencies
+        double skewed = random.nextDouble() * random.nextDouble();
+        return VOCABULARY[(int) (skewed * VOCABULARY.length)];
+    }
+
+    List<NoteTag> tags(Random random) {
+        List<NoteTag> tags = new ArrayList<>(3);
+        if (random.nextInt(100) < 50) {
+            tags.add(NoteTag.PERSONAL);
+        }
+        if (random.nextInt(100) < 40) {
+            tags.add(NoteTag.BUSINESS);
+        }
+        if (random.nextInt(100) < 15) {
+            tags.add(NoteTag.IMPORTANT);
+        }
+        return tags;
+    }
+
+    private String title(Random random) {
+        return word(random) + " " + word(random) + " " + random.nextInt(1000);
+    }
+
+    private String text(Random random) {
+        long length = Math.round(Math.exp(textLengthMu + TEXT_LENGTH_SIGMA * random.nextGaussian()));
+        int target = (int) Math.max(1, Math.min(maxTextLength, length));
+        StringBuilder text = new StringBuilder(target + 16);
+        while (text.length() < target) {
+            text.append(word(random));
+            if (random.nextInt(10) == 0) {
+                text.append(random.nextInt(10_000));
+            }
+            text.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+        }
+        text.setLength(target);
+        // @NotBlank, a cut right after a separator may leave only whitespace
+        return text.toString().isBlank() ? "note" : text.toString();
+    }
+}
@@ -0,0 +1,167 @@
+package com.thenotesapp.api.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Issues the requests of the workload. Thread-safe; per-worker state lives in {@link Cursor}.
+ */
+final class NotesClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String notesUrl;
+    private final ObjectMapper objectMapper;
+    private final NoteGenerator generator;
+    private List<String> seededIds = List.of();
+    // created during the run, the only notes deleted, so seeded ids stay valid
+    private final Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+
+    NotesClient(HttpClient http, String baseUrl, ObjectMapper objectMapper, NoteGenerator generator) {
+        this.http = http;
+        this.notesUrl = baseUrl + "/api/notes";
+        this.objectMapper = objectMapper;
+        this.generator = generator;
+    }
+
+    /**
+     * Imports the NDJSON file and remembers the ids of all notes for the workload.
+     *
+     * @return the number of notes in the database
+     */
+    int seed(Path ndjson) throws IOException, InterruptedException {
+        HttpResponse<byte[]> imported = http.send(HttpRequest.newBuilder(URI.create(notesUrl + "/_import"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofFile(ndjson))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (imported.statusCode() != 200) {
+            throw new IllegalStateException("Import failed with " + imported.statusCode() + ": "
+                    + new String(imported.body(), StandardCharsets.UTF_8));
+        }
+
+        List<String> ids = new ArrayList<>();
+        String after = "";
+        do {
+            JsonNode page = getJson(notesUrl + "?size=1000&after=" + encode(after));
+            page.get("content").forEach(note -> ids.add(note.get("id").asText()));
+            after = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (after != null);
+        seededIds = List.copyOf(ids);
+        return ids.size();
+    }
+
+    boolean canDelete() {
+        return !createdIds.isEmpty();
+    }
+
+    /**
+     * @return whether the response status was 2xx or 304
+     */
+    boolean call(Endpoint endpoint, Random random, Cursor cursor) throws IOException, InterruptedException {
+        String id = seededIds.get(random.nextInt(seededIds.size()));
+        return switch (endpoint) {
+            case GET_BY_ID -> succeeded(send(get(notesUrl + "/" + id)));
+            case GET_TEXT -> succeeded(send(get(notesUrl + "/" + id + "/text")));
+            case GET_STATS -> succeeded(send(get(notesUrl + "/" + id + "/stats?limit=20")));
+            case LIST_PAGE -> succeeded(send(get(notesUrl + "?page=" + random.nextInt(50) + "&size=20" + tagFilter(random))));
+            case LIST_CURSOR -> listAfter(cursor);
+            case SEARCH -> succeeded(send(get(notesUrl + "/search?q=" + encode(generator.word(random)))));
+            case CREATE -> create(random);
+            case UPDATE -> succeeded(send(json(notesUrl + "/" + id, "PUT", generator.next(random))));
+            case PATCH -> succeeded(send(json(notesUrl + "/" + id, "PATCH", Map.of("tags", generator.tags(random)))));
+            case DELETE -> delete();
+        };
+    }
+
+    private boolean create(Random random) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(json(notesUrl, "POST", generator.next(random)),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (!succeeded(response.statusCode())) {
+            return false;
+        }
+        createdIds.add(objectMapper.readTree(response.body()).get("id").asText());
+        return true;
+    }
+
+    private boolean delete() throws IOException, InterruptedException {
+        String id = createdIds.poll();
+        // another worker took the last one
+        return id == null || succeeded(send(HttpRequest.newBuilder(URI.create(notesUrl + "/" + id))
+                .timeout(TIMEOUT).DELETE().build()));
+    }
+
+    private boolean listAfter(Cursor cursor) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(get(notesUrl + "?size=20&after=" + encode(cursor.next)),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (!succeeded(response.statusCode())) {
+            cursor.next = "";
+            return false;
+        }
+        JsonNode next = objectMapper.readTree(response.body()).get("next");
+        // start over from the newest notes after the last page
+        cursor.next = next == null || next.isNull() ? "" : next.asText();
+        return true;
+    }
+
+    private JsonNode getJson(String url) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(get(url), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + url + " failed with " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest json(String url, String method, Object body) throws IOException {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private String tagFilter(Random random) {
+        // a third of the listings filter by one tag
+        return random.nextInt(3) == 0 ? "&tags=" + generator.tags(random).stream().findFirst()
+                .map(Enum::name).orElse("PERSONAL") : "";
+    }
+
+    private static boolean succeeded(int status) {
+        return (status >= 200 && status < 300) || status == 304;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The keyset position of one worker walking through the notes with {@code ?after=}.
+     */
+    static final class Cursor {
+        private String next = "";
+    }
+}
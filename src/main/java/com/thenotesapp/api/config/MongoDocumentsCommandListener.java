@@ -0,0 +1,67 @@
+package com.thenotesapp.api.config;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records {@code mongodb.command.documents}, tagged by command name: the documents in the returned
+ * cursor batch for reads, {@code n} for writes and 0 or 1 for findAndModify.
+ */
+final class MongoDocumentsCommandListener implements CommandListener {
+
+    private final MeterRegistry meterRegistry;
+    // by command name, the listener runs for every command
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    MongoDocumentsCommandListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        long documents = documentsOf(event.getCommandName(), event.getResponse());
+        if (documents >= 0) {
+            summaries.computeIfAbsent(event.getCommandName(), this::summary).record(documents);
+        }
+    }
+
+    private DistributionSummary summary(String command) {
+        return DistributionSummary.builder("mongodb.command.documents")
+                .description("Documents returned or written by a Mongo command")
+                .baseUnit("documents")
+                .tag("command", command)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // -1 for commands without a document count, like ping or createIndexes
+    static long documentsOf(String command, BsonDocument response) {
+        // the n of a count is the count, not documents transferred
+        if (response == null || "count".equals(command)) {
+            return -1;
+        }
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().get("firstBatch");
+            if (batch == null) {
+                batch = cursor.asDocument().get("nextBatch");
+            }
+            return batch != null && batch.isArray() ? batch.asArray().size() : -1;
+        }
+        BsonValue n = response.get("n");
+        if (n != null && n.isNumber()) {
+            return n.asNumber().longValue();
+        }
+        if (response.containsKey("value")) {
+            return response.get("value").isNull() ? 0 : 1;
+        }
+        return -1;
+    }
+}
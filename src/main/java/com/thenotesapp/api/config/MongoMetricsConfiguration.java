@@ -0,0 +1,21 @@
+package com.thenotesapp.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Mongo driver metrics on top of the ones Spring Boot registers: Boot already times every command
+ * ({@code mongodb.driver.commands}) and gauges the connection pools ({@code mongodb.driver.pool.*});
+ * this adds the number of documents each command returned or wrote.
+ */
+@Configuration
+public class MongoMetricsConfiguration {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoDocumentMetrics(MeterRegistry meterRegistry) {
+        MongoDocumentsCommandListener listener = new MongoDocumentsCommandListener(meterRegistry);
+        return settings -> settings.addCommandListener(listener);
+    }
+}
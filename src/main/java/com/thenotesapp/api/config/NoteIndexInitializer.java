@@ -0,0 +1,110 @@
+package com.thenotesapp.api.config;
+
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.WordStat;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the indexes declared on the document classes at startup and reports drift against the indexes
+ * that actually exist, so deployments do not rely on {@code auto-index-creation}.
+ */
+@Slf4j
+@Component
+public class NoteIndexInitializer implements ApplicationRunner {
+
+    private static final String ID_INDEX = "_id_";
+    private static final List<Class<?>> DOCUMENTS = List.of(Note.class, WordStat.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+
+    public NoteIndexInitializer(MongoTemplate mongoTemplate,
+                                @Value("${notes.indexes.reconcile-on-startup:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            DOCUMENTS.forEach(this::reconcile);
+        } catch (DataAccessException e) {
+            log.error("Could not reconcile indexes", e);
+        }
+    }
+
+    public Report reconcile(Class<?> document) {
+        String collection = mongoTemplate.getCollectionName(document);
+        IndexOperations indexOps = mongoTemplate.indexOps(document);
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+
+        Map<String, IndexInfo> existing = new LinkedHashMap<>();
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            existing.put(info.getName(), info);
+        }
+        existing.remove(ID_INDEX);
+
+        List<String> created = new ArrayList<>();
+        List<String> drifted = new ArrayList<>();
+        for (IndexDefinition declared : resolver.resolveIndexFor(document)) {
+            String name = declared.getIndexOptions().getString("name");
+            IndexInfo current = existing.remove(name);
+            if (current == null) {
+                indexOps.createIndex(declared);
+                created.add(name);
+                log.info("Created index {} {} on {}", name, declared.getIndexKeys().toJson(), collection);
+            } else if (!keysOf(declared.getIndexKeys()).equals(keysOf(current))) {
+                drifted.add(name);
+                log.warn("Index {} on {} has keys {} but {} is declared; drop it to let it be rebuilt",
+                        name, collection, keysOf(current), keysOf(declared.getIndexKeys()));
+            }
+        }
+
+        List<String> undeclared = new ArrayList<>(existing.keySet());
+        if (!undeclared.isEmpty()) {
+            log.warn("Indexes {} exist on {} but are not declared on {}",
+                    undeclared, collection, document.getSimpleName());
+        }
+        return new Report(created, drifted, undeclared);
+    }
+
+    private static List<String> keysOf(Document keys) {
+        List<String> result = new ArrayList<>();
+        keys.forEach((key, direction) -> result.add(key + ":" + direction));
+        return result;
+    }
+
+    private static List<String> keysOf(IndexInfo info) {
+        List<String> result = new ArrayList<>();
+        for (IndexField field : info.getIndexFields()) {
+            Sort.Direction direction = field.getDirection();
+            String value = direction == null ? "special" : direction.isAscending() ? "1" : "-1";
+            result.add(field.getKey() + ":" + value);
+        }
+        return result;
+    }
+
+    public record Report(List<String> created, List<String> drifted, List<String> undeclared) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.thenotesapp.api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs periodic maintenance such as the tag count reconciliation on Spring Boot's task scheduler.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
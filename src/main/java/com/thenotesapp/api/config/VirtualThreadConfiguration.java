@@ -0,0 +1,25 @@
+package com.thenotesapp.api.config;
+
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Diagnostics for the virtual-threads profile. With {@code spring.threads.virtual.enabled} Spring Boot
+ * runs Tomcat requests and the {@code applicationTaskExecutor} on virtual threads; these metrics show
+ * when a virtual thread pinned its carrier ({@code jvm.threads.virtual.pinned}) or could not be
+ * scheduled ({@code jvm.threads.virtual.submit.failed}).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
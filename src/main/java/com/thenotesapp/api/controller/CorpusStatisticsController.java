@@ -0,0 +1,43 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.service.CorpusStatisticsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("api/notes")
+public class CorpusStatisticsController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final CorpusStatisticsService corpusStatisticsService;
+
+    public CorpusStatisticsController(CorpusStatisticsService corpusStatisticsService) {
+        this.corpusStatisticsService = corpusStatisticsService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Long>> getCorpusStatistics(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(corpusStatisticsService.topWords(checkLimit(limit)));
+    }
+
+    @GetMapping("/tags/{tag}/stats")
+    public ResponseEntity<Map<String, Long>> getTagStatistics(@PathVariable NoteTag tag,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(corpusStatisticsService.topWords(tag, checkLimit(limit)));
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
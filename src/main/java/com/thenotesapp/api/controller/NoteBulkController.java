@@ -0,0 +1,30 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.dto.BulkResponseDto;
+import com.thenotesapp.api.service.NoteBulkService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("api/notes")
+public class NoteBulkController {
+
+    private final NoteBulkService noteBulkService;
+
+    public NoteBulkController(NoteBulkService noteBulkService) {
+        this.noteBulkService = noteBulkService;
+    }
+
+    @PostMapping(value = "/_bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResponseDto> bulk(InputStream body) throws IOException {
+        return ResponseEntity.ok(noteBulkService.execute(body));
+    }
+}
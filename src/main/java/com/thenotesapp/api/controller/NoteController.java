@@ -2,64 +2,180 @@ package com.thenotesapp.api.controller;
 
 import com.thenotesapp.api.dto.*;
 import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.TagMatch;
+import com.thenotesapp.api.service.NoteSearchService;
 import com.thenotesapp.api.service.NoteService;
+import com.thenotesapp.api.service.NoteWriteBehindService;
+import com.thenotesapp.api.service.Versioned;
+import com.thenotesapp.api.stats.WordStatisticsFilter;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongFunction;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("api/notes")
 @Validated
+@Timed(value = "notes.controller", histogram = true)
 public class NoteController {
 
+    private static final MediaType PLAIN_TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
     private final NoteService noteService;
+    private final NoteSearchService noteSearchService;
+    private final NoteWriteBehindService noteWriteBehindService;
 
-    public NoteController(NoteService noteService) {
+    public NoteController(NoteService noteService, NoteSearchService noteSearchService,
+                          NoteWriteBehindService noteWriteBehindService) {
         this.noteService = noteService;
+        this.noteSearchService = noteSearchService;
+        this.noteWriteBehindService = noteWriteBehindService;
     }
 
+    /**
+     * With write-behind enabled the note is queued and the response is 202 with its status URL as
+     * {@code Location}; {@code strict=true} waits for the note to be written and answers 201 as usual.
+     */
     @PostMapping
-    public ResponseEntity<NoteDetailDto> createNote(@Valid @RequestBody CreateNoteDto dto) {
-        NoteDetailDto createdNote = noteService.create(dto);
-        return new ResponseEntity<>(createdNote, HttpStatus.CREATED);
+    public ResponseEntity<?> createNote(@Valid @RequestBody CreateNoteDto dto,
+                                        @RequestParam(defaultValue = "false") boolean strict) {
+        if (!noteWriteBehindService.isEnabled()) {
+            NoteDetailDto createdNote = noteService.create(dto);
+            return new ResponseEntity<>(createdNote, HttpStatus.CREATED);
+        }
+        NoteWriteBehindService.QueuedNote queued;
+        try {
+            queued = noteWriteBehindService.enqueue(dto);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+        if (strict) {
+            try {
+                Optional<NoteDetailDto> createdNote = noteWriteBehindService.awaitWritten(queued);
+                if (createdNote.isPresent()) {
+                    return new ResponseEntity<>(createdNote.get(), HttpStatus.CREATED);
+                }
+            } catch (IllegalStateException e) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+        }
+        // not written yet, or strict and still queued after the timeout
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                        .path("/{id}/status").buildAndExpand(queued.id()).toUri())
+                .body(new NoteWriteStatusDto(queued.id(), NoteWriteState.PENDING, null));
+    }
+
+    @GetMapping("/{id}/status")
+    public ResponseEntity<NoteWriteStatusDto> getWriteStatus(@PathVariable String id) {
+        return noteWriteBehindService.status(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() ->
+                        new ResponseStatusException(HttpStatus.NOT_FOUND, "Note not found with id: " + id));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<NoteDetailDto> updateNote(@PathVariable String id, @Valid @RequestBody CreateNoteDto dto) {
-        NoteDetailDto updatedNote = noteService.update(id, dto);
-        return ResponseEntity.ok(updatedNote);
+    public ResponseEntity<NoteDetailDto> updateNote(@PathVariable String id, @Valid @RequestBody CreateNoteDto dto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<Long> expectedVersions = NoteETags.expectedVersions(ifMatch);
+        try {
+            Versioned<NoteDetailDto> updatedNote = noteService.update(id, dto, expectedVersions);
+            return ResponseEntity.ok().eTag(NoteETags.of(updatedNote.version())).body(updatedNote.value());
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+        }
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<NoteSummaryDto> patchNote(@PathVariable String id, @Valid @RequestBody PatchNoteDto dto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (dto.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Patch must set at least one field");
+        }
+        List<Long> expectedVersions = NoteETags.expectedVersions(ifMatch);
+        try {
+            Versioned<NoteSummaryDto> patchedNote = noteService.patch(id, dto, expectedVersions);
+            return ResponseEntity.ok().eTag(NoteETags.of(patchedNote.version())).body(patchedNote.value());
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteNote(@PathVariable String id) {
+    public ResponseEntity<Void> deleteNote(@PathVariable String id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<Long> expectedVersions = NoteETags.expectedVersions(ifMatch);
         try {
-            noteService.deleteNote(id);
+            noteService.deleteNote(id, expectedVersions);
             return ResponseEntity.noContent().build();
         } catch (NoSuchElementException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<NoteSummaryDto> getNoteById(@PathVariable String id) {
+    public ResponseEntity<NoteSummaryDto> getNoteById(@PathVariable String id, WebRequest request) {
+        if (isNotModified(id, request)) {
+            return null;
+        }
         return noteService.getById(id)
-                .map(ResponseEntity::ok)
+                .map(NoteController::withETag)
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Note not found with id: " + id));
     }
 
+    /**
+     * The text as JSON, or as plain UTF-8 streamed by byte range when the request has a {@code Range}
+     * header or accepts {@code text/plain}. The two representations have distinct ETags and vary by
+     * {@code Accept}, so one is never revalidated with the validator of the other.
+     */
     @GetMapping("/{id}/text")
-    public ResponseEntity<NoteTextDto> getNoteText(@PathVariable String id) {
-        return noteService.getTextById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<?> getNoteText(@PathVariable String id, @RequestHeader HttpHeaders headers,
+                                         WebRequest request, HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        boolean plain = headers.containsKey(HttpHeaders.RANGE) || acceptsPlainText(headers);
+        if (isNotModified(id, request, plain ? NoteETags::ofPlainText : NoteETags::of)) {
+            return null;
+        }
+        if (!plain) {
+            return noteService.getTextById(id)
+                    .map(NoteController::withETag)
+                    .orElseThrow(() ->
+                            new ResponseStatusException(HttpStatus.NOT_FOUND, "Note not found with id: " + id));
+        }
+        // Spring answers Range requests on a Resource body with 206 and only the requested bytes
+        return noteService.getTextResourceById(id)
+                .map(text -> ResponseEntity.ok()
+                        .eTag(NoteETags.ofPlainText(text.version()))
+                        .contentType(PLAIN_TEXT_UTF8)
+                        .body(text.value()))
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Note not found with id: " + id));
     }
@@ -67,21 +183,95 @@ public class NoteController {
     @GetMapping
     public ResponseEntity<Page<NoteSummaryDto>> listNotes(
             @RequestParam(required = false) List<NoteTag> tags,
+            @RequestParam(defaultValue = "any") TagMatch match,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        Page<NoteSummaryDto> notes = noteService.listNotes(tags, page, size);
+        Page<NoteSummaryDto> notes = noteService.listNotes(tags, match, page, size);
         return ResponseEntity.ok(notes);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<Page<NoteSummaryDto>> searchNotes(
+            @RequestParam String q,
+            @RequestParam(required = false) List<NoteTag> tags,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query cannot be empty");
+        }
+        try {
+            return ResponseEntity.ok(noteSearchService.search(q, tags, page, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDto<NoteSummaryDto>> listNotesAfter(
+            @RequestParam(required = false) List<NoteTag> tags,
+            @RequestParam(defaultValue = "any") TagMatch match,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        try {
+            return ResponseEntity.ok(noteService.listNotesAfter(tags, match, after, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}/stats")
-    public ResponseEntity<Map<String, Long>> getNoteStatistics(@PathVariable String id) {
-        String text = noteService.getTextById(id)
-                .map(NoteTextDto::getText)
+    public ResponseEntity<Map<String, Long>> getNoteStatistics(
+            @PathVariable String id,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long minCount,
+            @RequestParam(required = false) List<String> stopwords,
+            WebRequest request
+    ) {
+        WordStatisticsFilter filter;
+        try {
+            filter = WordStatisticsFilter.of(limit, minCount, stopwords);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (isNotModified(id, request)) {
+            return null;
+        }
+        return noteService.getStatisticsById(id, filter)
+                .map(NoteController::withETag)
                 .orElseThrow(() ->
                         new ResponseStatusException(HttpStatus.NOT_FOUND, "Note not found with id: " + id));
+    }
+
+    /**
+     * Answers {@code If-None-Match} from the note version alone, before the note itself is read.
+     * Returns true if the response has been completed as 304.
+     */
+    private boolean isNotModified(String id, WebRequest request) {
+        return isNotModified(id, request, NoteETags::of);
+    }
+
+    private boolean isNotModified(String id, WebRequest request, LongFunction<String> eTag) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            return false;
+        }
+        return noteService.getVersion(id)
+                .map(version -> request.checkNotModified(eTag.apply(version)))
+                .orElse(false);
+    }
+
+    private static boolean acceptsPlainText(HttpHeaders headers) {
+        try {
+            return headers.getAccept().stream()
+                    .anyMatch(type -> !type.isWildcardType() && type.isCompatibleWith(MediaType.TEXT_PLAIN));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
 
-        Map<String, Long> stats = noteService.getNoteStatistics(text);
-        return ResponseEntity.ok(stats);
+    private static <T> ResponseEntity<T> withETag(Versioned<T> versioned) {
+        return ResponseEntity.ok().eTag(NoteETags.of(versioned.version())).body(versioned.value());
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.thenotesapp.api.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ETags of note resources are the quoted document version, e.g. {@code "3"}. The plain text
+ * representation of a note text has its own, e.g. {@code "3-plain"}.
+ */
+final class NoteETags {
+
+    private NoteETags() {
+    }
+
+    static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String ofPlainText(long version) {
+        return "\"" + version + "-plain\"";
+    }
+
+    /**
+     * Versions an {@code If-Match} header accepts, or null when there is no precondition
+     * (no header or {@code *}, which only requires the note to exist).
+     *
+     * @throws ResponseStatusException 412 if the header lists no version of a note
+     */
+    static List<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            // If-Match uses strong comparison, weak tags never match
+            if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(value.substring(1, value.length() - 1)));
+            } catch (NumberFormatException e) {
+                // not one of ours, cannot match
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not name a note version");
+        }
+        return versions;
+    }
+}
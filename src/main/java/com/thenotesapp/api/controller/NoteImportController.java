@@ -0,0 +1,30 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.dto.ImportSummaryDto;
+import com.thenotesapp.api.service.NoteImportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("api/notes")
+public class NoteImportController {
+
+    private final NoteImportService noteImportService;
+
+    public NoteImportController(NoteImportService noteImportService) {
+        this.noteImportService = noteImportService;
+    }
+
+    @PostMapping(value = "/_import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportSummaryDto> importNotes(InputStream body) throws IOException {
+        return ResponseEntity.ok(noteImportService.importNotes(body));
+    }
+}
@@ -0,0 +1,58 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.service.CorpusStatisticsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Same contract as {@link CorpusStatisticsController} for the reactive profile. Top words are mostly
+ * served from memory, a cache miss reads Mongo through the blocking driver off the event loop.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("api/notes")
+public class ReactiveCorpusStatisticsController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final CorpusStatisticsService corpusStatisticsService;
+
+    public ReactiveCorpusStatisticsController(CorpusStatisticsService corpusStatisticsService) {
+        this.corpusStatisticsService = corpusStatisticsService;
+    }
+
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<Map<String, Long>>> getCorpusStatistics(@RequestParam(defaultValue = "20") int limit) {
+        int checked = checkLimit(limit);
+        return offload(() -> corpusStatisticsService.topWords(checked));
+    }
+
+    @GetMapping("/tags/{tag}/stats")
+    public Mono<ResponseEntity<Map<String, Long>>> getTagStatistics(@PathVariable NoteTag tag,
+                                                                    @RequestParam(defaultValue = "20") int limit) {
+        int checked = checkLimit(limit);
+        return offload(() -> corpusStatisticsService.topWords(tag, checked));
+    }
+
+    private static Mono<ResponseEntity<Map<String, Long>>> offload(Callable<Map<String, Long>> topWords) {
+        return Mono.fromCallable(topWords)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,48 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.dto.BulkResponseDto;
+import com.thenotesapp.api.service.NoteBulkService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+
+/**
+ * Same contract as {@link NoteBulkController} for the reactive profile. The body is read as a stream by
+ * the blocking {@link NoteBulkService} on a worker thread, requesting buffers from Netty as it parses.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("api/notes")
+public class ReactiveNoteBulkController {
+
+    // request body buffers read ahead of the parser
+    private static final int BODY_DEMAND = 16;
+
+    private final NoteBulkService noteBulkService;
+
+    public ReactiveNoteBulkController(NoteBulkService noteBulkService) {
+        this.noteBulkService = noteBulkService;
+    }
+
+    @PostMapping(value = "/_bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<BulkResponseDto>> bulk(@RequestBody Flux<DataBuffer> body) {
+        return Mono.fromCallable(() -> {
+                    try (InputStream in = DataBufferUtils.subscriberInputStream(body, BODY_DEMAND)) {
+                        return noteBulkService.execute(in);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+}
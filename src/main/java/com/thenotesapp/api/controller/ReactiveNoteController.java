@@ -0,0 +1,286 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.dto.*;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.TagMatch;
+import com.thenotesapp.api.service.NoteSearchService;
+import com.thenotesapp.api.service.NoteWriteBehindService;
+import com.thenotesapp.api.service.ReactiveNoteService;
+import com.thenotesapp.api.service.Versioned;
+import com.thenotesapp.api.stats.WordStatisticsFilter;
+import jakarta.validation.Valid;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ResourceHttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongFunction;
+
+/**
+ * Same contract as {@link NoteController}, served by WebFlux when the reactive profile is active.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("api/notes")
+@Validated
+public class ReactiveNoteController {
+
+    private static final MediaType PLAIN_TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final ResolvableType RESOURCE_TYPE = ResolvableType.forClass(Resource.class);
+    private static final ResourceHttpMessageWriter TEXT_WRITER = new ResourceHttpMessageWriter();
+
+    private final ReactiveNoteService noteService;
+    private final NoteSearchService noteSearchService;
+    private final NoteWriteBehindService noteWriteBehindService;
+
+    public ReactiveNoteController(ReactiveNoteService noteService, NoteSearchService noteSearchService,
+                                  NoteWriteBehindService noteWriteBehindService) {
+        this.noteService = noteService;
+        this.noteSearchService = noteSearchService;
+        this.noteWriteBehindService = noteWriteBehindService;
+    }
+
+    /**
+     * Write-behind and {@code strict} as in {@link NoteController#createNote}. Queueing may store a long
+     * text in GridFS, so it runs on a worker thread; a strict request waits for its batch without one.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<?>> createNote(@Valid @RequestBody CreateNoteDto dto,
+                                              @RequestParam(defaultValue = "false") boolean strict,
+                                              ServerWebExchange exchange) {
+        if (!noteWriteBehindService.isEnabled()) {
+            return noteService.create(dto)
+                    .map(createdNote -> new ResponseEntity<>(createdNote, HttpStatus.CREATED));
+        }
+        return Mono.fromCallable(() -> noteWriteBehindService.enqueue(dto))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(RejectedExecutionException.class,
+                        e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()))
+                .flatMap(queued -> {
+                    ResponseEntity<?> accepted = accepted(queued, exchange);
+                    if (!strict) {
+                        return Mono.just(accepted);
+                    }
+                    return Mono.fromFuture(() -> noteWriteBehindService.whenWritten(queued))
+                            .onErrorMap(IllegalStateException.class,
+                                    e -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()))
+                            .map(createdNote -> createdNote
+                                    .<ResponseEntity<?>>map(note -> new ResponseEntity<>(note, HttpStatus.CREATED))
+                                    // still queued after the timeout
+                                    .orElse(accepted));
+                });
+    }
+
+    @GetMapping("/{id}/status")
+    public Mono<ResponseEntity<NoteWriteStatusDto>> getWriteStatus(@PathVariable String id) {
+        // may look the note up in Mongo
+        return Mono.fromCallable(() -> noteWriteBehindService.status(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(status -> status.map(ResponseEntity::ok).map(Mono::just).orElseGet(() -> notFound(id)));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<NoteDetailDto>> updateNote(@PathVariable String id, @Valid @RequestBody CreateNoteDto dto,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return noteService.update(id, dto, NoteETags.expectedVersions(ifMatch))
+                .map(ReactiveNoteController::withETag)
+                .onErrorMap(ReactiveNoteController::toResponseStatus);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<NoteSummaryDto>> patchNote(@PathVariable String id, @Valid @RequestBody PatchNoteDto dto,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (dto.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Patch must set at least one field");
+        }
+        return noteService.patch(id, dto, NoteETags.expectedVersions(ifMatch))
+                .map(ReactiveNoteController::withETag)
+                .onErrorMap(ReactiveNoteController::toResponseStatus);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteNote(@PathVariable String id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return noteService.deleteNote(id, NoteETags.expectedVersions(ifMatch))
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorMap(ReactiveNoteController::toResponseStatus);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<NoteSummaryDto>> getNoteById(@PathVariable String id, ServerWebExchange exchange) {
+        return unlessNotModified(id, exchange, noteService.getById(id)
+                .map(ReactiveNoteController::withETag)
+                .switchIfEmpty(notFound(id)));
+    }
+
+    @GetMapping("/{id}/text")
+    public Mono<ResponseEntity<NoteTextDto>> getNoteText(@PathVariable String id, ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return unlessNotModified(id, exchange, NoteETags::of, noteService.getTextById(id)
+                .map(ReactiveNoteController::withETag)
+                .switchIfEmpty(notFound(id)));
+    }
+
+    /**
+     * The text as plain UTF-8 when the request accepts {@code text/plain}, see {@link NoteController#getNoteText}.
+     */
+    @GetMapping(value = "/{id}/text", produces = MediaType.TEXT_PLAIN_VALUE)
+    public Mono<Void> getNoteTextAsPlainText(@PathVariable String id, ServerWebExchange exchange) {
+        return writeText(id, exchange);
+    }
+
+    /**
+     * The requested byte ranges of the text as plain UTF-8, answered with 206.
+     */
+    @GetMapping(value = "/{id}/text", headers = HttpHeaders.RANGE)
+    public Mono<Void> getNoteTextRange(@PathVariable String id, ServerWebExchange exchange) {
+        return writeText(id, exchange);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<NoteSummaryDto>>> listNotes(
+            @RequestParam(required = false) List<NoteTag> tags,
+            @RequestParam(defaultValue = "any") TagMatch match,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return noteService.listNotes(tags, match, page, size)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Page<NoteSummaryDto>>> searchNotes(
+            @RequestParam String q,
+            @RequestParam(required = false) List<NoteTag> tags,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query cannot be empty");
+        }
+        // served from the in-memory index, nothing blocks
+        return Mono.fromSupplier(() -> ResponseEntity.ok(noteSearchService.search(q, tags, page, size)))
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    @GetMapping(params = "after")
+    public Mono<ResponseEntity<CursorPageDto<NoteSummaryDto>>> listNotesAfter(
+            @RequestParam(required = false) List<NoteTag> tags,
+            @RequestParam(defaultValue = "any") TagMatch match,
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return noteService.listNotesAfter(tags, match, after, size)
+                .map(ResponseEntity::ok)
+                .onErrorMap(IllegalArgumentException.class, e ->
+                        new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    @GetMapping("/{id}/stats")
+    public Mono<ResponseEntity<Map<String, Long>>> getNoteStatistics(
+            @PathVariable String id,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long minCount,
+            @RequestParam(required = false) List<String> stopwords,
+            ServerWebExchange exchange
+    ) {
+        WordStatisticsFilter filter;
+        try {
+            filter = WordStatisticsFilter.of(limit, minCount, stopwords);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return unlessNotModified(id, exchange, noteService.getStatisticsById(id, filter)
+                .map(ReactiveNoteController::withETag)
+                .switchIfEmpty(notFound(id)));
+    }
+
+    /**
+     * Writes the text resource with Spring's range support, like a {@code Resource} body of
+     * {@link NoteController}. The response is written from a worker thread, since reading a chunked
+     * text blocks on GridFS.
+     */
+    private Mono<Void> writeText(String id, ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        ServerHttpResponse response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return super.writeWith(Flux.from(body).subscribeOn(Schedulers.boundedElastic()));
+            }
+        };
+        return unlessNotModified(id, exchange, NoteETags::ofPlainText, Mono.defer(() -> noteService.getTextResourceById(id))
+                .switchIfEmpty(notFound(id))
+                .flatMap(text -> {
+                    response.getHeaders().setETag(NoteETags.ofPlainText(text.version()));
+                    return TEXT_WRITER.write(Mono.just(text.value()), RESOURCE_TYPE, RESOURCE_TYPE, PLAIN_TEXT_UTF8,
+                            exchange.getRequest(), response, Map.of());
+                }));
+    }
+
+    private <T> Mono<ResponseEntity<T>> unlessNotModified(String id, ServerWebExchange exchange, Mono<ResponseEntity<T>> read) {
+        return unlessNotModified(id, exchange, NoteETags::of, read);
+    }
+
+    /**
+     * Answers {@code If-None-Match} from the note version alone and only subscribes to the full
+     * read if the client's copy is stale.
+     */
+    private <T> Mono<T> unlessNotModified(String id, ServerWebExchange exchange, LongFunction<String> eTag, Mono<T> read) {
+        if (exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) == null) {
+            return read;
+        }
+        return noteService.getVersion(id)
+                .map(version -> exchange.checkNotModified(eTag.apply(version)))
+                .defaultIfEmpty(false)
+                .flatMap(notModified -> notModified ? Mono.<T>empty() : read);
+    }
+
+    private static ResponseEntity<?> accepted(NoteWriteBehindService.QueuedNote queued, ServerWebExchange exchange) {
+        return ResponseEntity.accepted()
+                .location(UriComponentsBuilder.fromUri(exchange.getRequest().getURI()).replaceQuery(null)
+                        .path("/{id}/status").buildAndExpand(queued.id()).toUri())
+                .body(new NoteWriteStatusDto(queued.id(), NoteWriteState.PENDING, null));
+    }
+
+    private static <T> ResponseEntity<T> withETag(Versioned<T> versioned) {
+        return ResponseEntity.ok().eTag(NoteETags.of(versioned.version())).body(versioned.value());
+    }
+
+    private static Throwable toResponseStatus(Throwable e) {
+        if (e instanceof NoSuchElementException) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+        if (e instanceof OptimisticLockingFailureException) {
+            return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+        }
+        return e;
+    }
+
+    private static <T> Mono<T> notFound(String id) {
+        return Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Note not found with id: " + id));
+    }
+}
@@ -0,0 +1,68 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.service.NoteExportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Same contract as {@link NoteExportController} for the reactive profile. The blocking
+ * {@link NoteExportService} writes to an output stream on a worker thread; each write waits until Netty
+ * asked for more, so a slow client holds back the Mongo cursor instead of filling memory.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("api/notes")
+public class ReactiveNoteExportController {
+
+    private static final MediaType NDJSON_UTF8 = new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8);
+
+    private final NoteExportService noteExportService;
+
+    public ReactiveNoteExportController(NoteExportService noteExportService) {
+        this.noteExportService = noteExportService;
+    }
+
+    @GetMapping(value = "/_export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> exportNotes(
+            @RequestParam(required = false) List<NoteTag> tags,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            ServerWebExchange exchange
+    ) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must be before 'to'");
+        }
+        Flux<DataBuffer> body = Flux.from(DataBufferUtils.outputStreamPublisher(out -> {
+            try {
+                noteExportService.export(tags, from, to, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, exchange.getResponse().bufferFactory(), task -> Schedulers.boundedElastic().schedule(task)));
+        return ResponseEntity.ok()
+                .contentType(NDJSON_UTF8)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\"")
+                .body(body);
+    }
+}
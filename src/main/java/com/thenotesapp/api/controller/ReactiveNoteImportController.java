@@ -0,0 +1,49 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.dto.ImportSummaryDto;
+import com.thenotesapp.api.service.NoteImportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+
+/**
+ * Same contract as {@link NoteImportController} for the reactive profile. The dump is parsed by the
+ * blocking {@link NoteImportService} on a worker thread, which only requests further buffers from
+ * Netty as it consumes them, so memory stays bounded like in the servlet mode.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("api/notes")
+public class ReactiveNoteImportController {
+
+    // request body buffers read ahead of the parser
+    private static final int BODY_DEMAND = 16;
+
+    private final NoteImportService noteImportService;
+
+    public ReactiveNoteImportController(NoteImportService noteImportService) {
+        this.noteImportService = noteImportService;
+    }
+
+    @PostMapping(value = "/_import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<ImportSummaryDto>> importNotes(@RequestBody Flux<DataBuffer> body) {
+        return Mono.fromCallable(() -> {
+                    try (InputStream in = DataBufferUtils.subscriberInputStream(body, BODY_DEMAND)) {
+                        return noteImportService.importNotes(in);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+}
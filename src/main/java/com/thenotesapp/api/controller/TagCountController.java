@@ -0,0 +1,27 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.service.TagCountService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// served from memory without blocking, so the same controller works for the servlet and reactive stack
+@RestController
+@RequestMapping("api/notes")
+public class TagCountController {
+
+    private final TagCountService tagCountService;
+
+    public TagCountController(TagCountService tagCountService) {
+        this.tagCountService = tagCountService;
+    }
+
+    @GetMapping("/tags/counts")
+    public ResponseEntity<Map<NoteTag, Long>> getTagCounts() {
+        return ResponseEntity.ok(tagCountService.counts());
+    }
+}
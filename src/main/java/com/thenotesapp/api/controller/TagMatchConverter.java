@@ -0,0 +1,17 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.model.TagMatch;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// lets the match parameter be written in lower case (match=all); Boot registers converter beans with MVC and WebFlux
+@Component
+public class TagMatchConverter implements Converter<String, TagMatch> {
+
+    @Override
+    public TagMatch convert(String source) {
+        return TagMatch.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,19 @@
+package com.thenotesapp.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResultDto {
+
+    //position of the operation in the request
+    private int index;
+    private BulkOperationType op;
+    private String id;
+    //HTTP status the operation would have had as a single request
+    private int status;
+    private String error;
+}
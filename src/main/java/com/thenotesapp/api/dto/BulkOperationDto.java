@@ -0,0 +1,17 @@
+package com.thenotesapp.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOperationDto {
+
+    private BulkOperationType op;
+    //required for UPDATE and DELETE
+    private String id;
+    //required for CREATE and UPDATE
+    private CreateNoteDto note;
+}
@@ -0,0 +1,5 @@
+package com.thenotesapp.api.dto;
+
+public enum BulkOperationType {
+    CREATE, UPDATE, DELETE
+}
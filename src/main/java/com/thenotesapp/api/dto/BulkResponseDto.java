@@ -0,0 +1,17 @@
+package com.thenotesapp.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkResponseDto {
+
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResultDto> items;
+}
@@ -0,0 +1,18 @@
+package com.thenotesapp.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDto<T> {
+
+    private List<T> content;
+    private int size;
+    //opaque token for the next slice, null on the last one
+    private String next;
+}
@@ -0,0 +1,15 @@
+package com.thenotesapp.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportErrorDto {
+
+    //position of the record in the request, starting at 0
+    private long record;
+    private String error;
+}
@@ -0,0 +1,22 @@
+package com.thenotesapp.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportSummaryDto {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private int batches;
+    private long elapsedMillis;
+    //only the first errors are kept, errorsTruncated tells whether there were more
+    private List<ImportErrorDto> errors;
+    private boolean errorsTruncated;
+}
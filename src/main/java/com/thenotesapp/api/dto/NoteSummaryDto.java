@@ -4,7 +4,6 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.LocalDateTime;
 
@@ -16,7 +15,6 @@ public class NoteSummaryDto {
     //kept id field just for simplified testing
     private String id;
     @NotBlank(message = "Title cannot be empty")
-    @Indexed
     private String title;
     private LocalDateTime createdDate;
 }
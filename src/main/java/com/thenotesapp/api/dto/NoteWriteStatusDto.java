@@ -0,0 +1,16 @@
+package com.thenotesapp.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NoteWriteStatusDto {
+
+    private String id;
+    private NoteWriteState state;
+    //why the note was not written, only set for FAILED
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.thenotesapp.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.thenotesapp.api.model.NoteTag;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatchNoteDto {
+
+    //null fields are left unchanged, provided ones follow the same rules as CreateNoteDto
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title cannot be empty")
+    private String title;
+    @Pattern(regexp = "(?s).*\\S.*", message = "Text cannot be empty")
+    private String text;
+    private List<NoteTag> tags;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return title == null && text == null && tags == null;
+    }
+}
@@ -1,23 +1,64 @@
 package com.thenotesapp.api.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Document(collection = "notes")
+@CompoundIndexes({
+        // newest-first listing and keyset pagination; tag filters are evaluated on the index keys while
+        // walking it in order, without fetching notes that do not match
+        @CompoundIndex(name = "createdDate_id_tagMask", def = "{ 'createdDate': -1, '_id': -1, 'tagMask': 1 }"),
+        // selective tag filters: a range per matching mask, merged newest first, and counts from the keys alone
+        @CompoundIndex(name = "tagMask_createdDate_id", def = "{ 'tagMask': 1, 'createdDate': -1, '_id': -1 }")
+})
 public class Note {
     @Id
     private String id;
     private String title;
     private String text;
+    //deflated UTF-8 text, set instead of text for long texts when compression is enabled
+    private byte[] compressedText;
+    //GridFS file holding the text instead, for texts too long to keep in the document
+    private ObjectId textFileId;
     private LocalDateTime createdDate;
     private List<NoteTag> tags;
+    //bit per NoteTag ordinal in tags, kept in sync by setTags; tag filters query this instead of the list
+    private int tagMask;
+    //word -> count of the text, computed on write so statistics reads never transfer the text
+    private Map<String, Long> wordFrequencies;
+    //incremented on every write, exposed as the ETag of the note's resources
+    @Version
+    private Long version;
+
+    public Note(String id, String title, String text, LocalDateTime createdDate, List<NoteTag> tags) {
+        this.id = id;
+        this.title = title;
+        this.text = text;
+        this.createdDate = createdDate;
+        this.tags = tags;
+        this.tagMask = NoteTag.mask(tags);
+    }
+
+    // replaces the generated setter so the mask cannot go stale
+    public void setTags(List<NoteTag> tags) {
+        this.tags = tags;
+        this.tagMask = NoteTag.mask(tags);
+    }
+
+    public EnumSet<NoteTag> tagSet() {
+        return NoteTag.fromMask(tagMask);
+    }
 }
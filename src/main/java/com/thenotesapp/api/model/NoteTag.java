@@ -1,5 +1,43 @@
 package com.thenotesapp.api.model;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * Notes store their tags as a bitmask of these ordinals as well, see {@link Note#getTagMask()}: add new
+ * tags at the end and never reorder or remove one, or masks already stored would change meaning.
+ */
 public enum NoteTag {
-    BUSINESS, PERSONAL, IMPORTANT
+    BUSINESS, PERSONAL, IMPORTANT;
+
+    static {
+        // Mongo's bitwise operators take a non-negative 32-bit mask, so the sign bit stays unused
+        if (values().length > Integer.SIZE - 1) {
+            throw new IllegalStateException("Tag masks hold at most " + (Integer.SIZE - 1) + " tags");
+        }
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public static int mask(Collection<NoteTag> tags) {
+        int mask = 0;
+        if (tags != null) {
+            for (NoteTag tag : tags) {
+                mask |= tag.bit();
+            }
+        }
+        return mask;
+    }
+
+    public static EnumSet<NoteTag> fromMask(int mask) {
+        EnumSet<NoteTag> tags = EnumSet.noneOf(NoteTag.class);
+        for (NoteTag tag : values()) {
+            if ((mask & tag.bit()) != 0) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
 }
@@ -0,0 +1,64 @@
+package com.thenotesapp.api.model;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * How a tag filter matches a note's tags, evaluated on {@link Note#getTagMask()}.
+ * <p>
+ * While there are few tags the filter lists every mask that matches in an {@code $in}, which seeks the
+ * {@code tagMask_createdDate_id} index by point intervals and keeps its newest-first order. Bitwise
+ * operators cannot bound an index scan, so they are only used once enumerating the masks gets too long.
+ */
+public enum TagMatch {
+    ANY("$bitsAnySet") {
+        @Override
+        boolean matches(int noteMask, int mask) {
+            return (noteMask & mask) != 0;
+        }
+    },
+    ALL("$bitsAllSet") {
+        @Override
+        boolean matches(int noteMask, int mask) {
+            return (noteMask & mask) == mask;
+        }
+    },
+    NONE("$bitsAllClear") {
+        @Override
+        boolean matches(int noteMask, int mask) {
+            return (noteMask & mask) == 0;
+        }
+    };
+
+    // up to 256 masks in an $in
+    private static final int MAX_ENUMERATED_TAGS = 8;
+
+    private final String operator;
+
+    TagMatch(String operator) {
+        this.operator = operator;
+    }
+
+    abstract boolean matches(int noteMask, int mask);
+
+    /**
+     * The condition on {@code tagMask} matching notes with any, all or none of {@code tags}.
+     */
+    public Document filter(Collection<NoteTag> tags) {
+        int mask = NoteTag.mask(tags);
+        int tagCount = NoteTag.values().length;
+        if (tagCount > MAX_ENUMERATED_TAGS) {
+            return new Document(operator, mask);
+        }
+        List<Integer> masks = new ArrayList<>();
+        for (int noteMask = 0; noteMask < 1 << tagCount; noteMask++) {
+            if (matches(noteMask, mask)) {
+                masks.add(noteMask);
+            }
+        }
+        return new Document("$in", masks);
+    }
+}
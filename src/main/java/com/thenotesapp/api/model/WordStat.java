@@ -0,0 +1,31 @@
+package com.thenotesapp.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Occurrences of one word across all notes of a scope: every note, or the notes with one tag.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "word_stats")
+@CompoundIndex(name = "scope_count", def = "{ 'scope': 1, 'count': -1 }")
+public class WordStat {
+    public static final String ALL_NOTES = "ALL";
+
+    //scope + ":" + word
+    @Id
+    private String id;
+    private String scope;
+    private String word;
+    private long count;
+
+    public static String idOf(String scope, String word) {
+        return scope + ":" + word;
+    }
+}
@@ -2,14 +2,58 @@ package com.thenotesapp.api.repository;
 
 import com.thenotesapp.api.model.Note;
 import com.thenotesapp.api.model.NoteTag;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Optional;
 
 @Repository
-public interface NoteRepository extends MongoRepository<Note, String> {
+public interface NoteRepository extends MongoRepository<Note, String>, NoteRepositoryCustom {
+    // Summary reads only pull these fields, the (potentially huge) text never leaves Mongo
+    String SUMMARY_FIELDS = "{ 'title': 1, 'createdDate': 1, 'tags': 1, 'version': 1 }";
+
     Page<Note> findByTagsIn(Collection<NoteTag> tags, Pageable pageable);
+
+    @Query(value = "{ '_id': ?0 }", fields = SUMMARY_FIELDS)
+    Optional<Note> findSummaryById(String id);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'text': 1, 'compressedText': 1, 'textFileId': 1, 'version': 1 }")
+    Optional<Note> findTextById(String id);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'wordFrequencies': 1, 'version': 1 }")
+    Optional<Note> findWordFrequenciesById(String id);
+
+    // answers conditional requests without reading the note itself
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1 }")
+    Optional<Note> findVersionById(String id);
+
+    @Query(fields = SUMMARY_FIELDS)
+    Page<Note> findSummariesBy(Pageable pageable);
+
+    // tagFilter is a TagMatch condition on the mask, e.g. { '$bitsAllSet': 5 }
+    @Query(value = "{ 'tagMask': ?0 }", fields = SUMMARY_FIELDS)
+    Page<Note> findSummariesByTagMask(Document tagFilter, Pageable pageable);
+
+    // Keyset pagination: slices never issue a count and seek past (createdDate, _id) instead of skipping
+    @Query(fields = SUMMARY_FIELDS)
+    Slice<Note> findAllBy(Pageable pageable);
+
+    @Query(value = "{ 'tagMask': ?0 }", fields = SUMMARY_FIELDS)
+    Slice<Note> findSliceByTagMask(Document tagFilter, Pageable pageable);
+
+    @Query(value = "{ '$or': [ { 'createdDate': { '$lt': ?0 } }, { 'createdDate': ?0, '_id': { '$lt': ?1 } } ] }",
+            fields = SUMMARY_FIELDS)
+    Slice<Note> findAllAfter(LocalDateTime createdDate, ObjectId id, Pageable pageable);
+
+    @Query(value = "{ 'tagMask': ?0, '$or': [ { 'createdDate': { '$lt': ?1 } }, { 'createdDate': ?1, '_id': { '$lt': ?2 } } ] }",
+            fields = SUMMARY_FIELDS)
+    Slice<Note> findByTagMaskAfter(Document tagFilter, LocalDateTime createdDate, ObjectId id, Pageable pageable);
 }
@@ -0,0 +1,35 @@
+package com.thenotesapp.api.repository;
+
+import com.thenotesapp.api.model.Note;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Single round-trip writes that also return what listeners of {@code NoteChangedEvent} need to know
+ * about the note as it was before the write.
+ * <p>
+ * Writes can be made conditional on the current version of the note: with non-null
+ * {@code expectedVersions} a note whose version is not one of them is left untouched and reported
+ * as missing; callers tell the two cases apart with {@code existsById}.
+ */
+public interface NoteRepositoryCustom {
+
+    // everything a change event needs, without the text
+    String[] SNAPSHOT_FIELDS = {"title", "createdDate", "tags", "wordFrequencies", "textFileId", "version"};
+
+    /**
+     * Applies {@code update} to the note and increments its version with a single findAndModify.
+     *
+     * @return the note before the update, projected to {@link #SNAPSHOT_FIELDS}, or empty if there is no such note
+     */
+    Optional<Note> findAndUpdateById(String id, Collection<Long> expectedVersions, Update update);
+
+    /**
+     * Deletes the note with a single findAndRemove.
+     *
+     * @return the deleted note, projected to {@link #SNAPSHOT_FIELDS}, or empty if there was no such note
+     */
+    Optional<Note> findAndRemoveById(String id, Collection<Long> expectedVersions);
+}
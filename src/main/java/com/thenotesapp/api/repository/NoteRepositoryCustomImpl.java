@@ -0,0 +1,46 @@
+package com.thenotesapp.api.repository;
+
+import com.thenotesapp.api.model.Note;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.Optional;
+
+class NoteRepositoryCustomImpl implements NoteRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    NoteRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Note> findAndUpdateById(String id, Collection<Long> expectedVersions, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(snapshotById(id, expectedVersions),
+                update.inc("version", 1), FindAndModifyOptions.options().returnNew(false), Note.class));
+    }
+
+    @Override
+    public Optional<Note> findAndRemoveById(String id, Collection<Long> expectedVersions) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(snapshotById(id, expectedVersions), Note.class));
+    }
+
+    static Query snapshotById(String id, Collection<Long> expectedVersions) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersions != null) {
+            Criteria version = Criteria.where("version").in(expectedVersions);
+            if (expectedVersions.contains(0L)) {
+                // documents written before versioning have no version, their ETag is 0
+                version = new Criteria().orOperator(version, Criteria.where("version").exists(false));
+            }
+            criteria = criteria.andOperator(version);
+        }
+        Query query = Query.query(criteria);
+        query.fields().include(SNAPSHOT_FIELDS);
+        return query;
+    }
+}
@@ -0,0 +1,52 @@
+package com.thenotesapp.api.repository;
+
+import com.thenotesapp.api.model.Note;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+import static com.thenotesapp.api.repository.NoteRepository.SUMMARY_FIELDS;
+
+/**
+ * Non-blocking counterpart of {@link NoteRepository} used by the reactive profile. Reactive
+ * repositories have no {@code Page}/{@code Slice}, pages are assembled from a limited flux and a count.
+ */
+@Repository
+public interface ReactiveNoteRepository extends ReactiveMongoRepository<Note, String>, ReactiveNoteRepositoryCustom {
+
+    @Query(value = "{ '_id': ?0 }", fields = SUMMARY_FIELDS)
+    Mono<Note> findSummaryById(String id);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'text': 1, 'compressedText': 1, 'textFileId': 1, 'version': 1 }")
+    Mono<Note> findTextById(String id);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'wordFrequencies': 1, 'version': 1 }")
+    Mono<Note> findWordFrequenciesById(String id);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1 }")
+    Mono<Note> findVersionById(String id);
+
+    @Query(fields = SUMMARY_FIELDS)
+    Flux<Note> findSummariesBy(Pageable pageable);
+
+    @Query(value = "{ 'tagMask': ?0 }", fields = SUMMARY_FIELDS)
+    Flux<Note> findSummariesByTagMask(Document tagFilter, Pageable pageable);
+
+    @Query(value = "{ 'tagMask': ?0 }", count = true)
+    Mono<Long> countByTagMask(Document tagFilter);
+
+    @Query(value = "{ '$or': [ { 'createdDate': { '$lt': ?0 } }, { 'createdDate': ?0, '_id': { '$lt': ?1 } } ] }",
+            fields = SUMMARY_FIELDS)
+    Flux<Note> findAllAfter(LocalDateTime createdDate, ObjectId id, Pageable pageable);
+
+    @Query(value = "{ 'tagMask': ?0, '$or': [ { 'createdDate': { '$lt': ?1 } }, { 'createdDate': ?1, '_id': { '$lt': ?2 } } ] }",
+            fields = SUMMARY_FIELDS)
+    Flux<Note> findByTagMaskAfter(Document tagFilter, LocalDateTime createdDate, ObjectId id, Pageable pageable);
+}
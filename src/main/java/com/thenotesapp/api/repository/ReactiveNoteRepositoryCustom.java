@@ -0,0 +1,17 @@
+package com.thenotesapp.api.repository;
+
+import com.thenotesapp.api.model.Note;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Non-blocking counterpart of {@link NoteRepositoryCustom}.
+ */
+public interface ReactiveNoteRepositoryCustom {
+
+    Mono<Note> findAndUpdateById(String id, Collection<Long> expectedVersions, Update update);
+
+    Mono<Note> findAndRemoveById(String id, Collection<Long> expectedVersions);
+}
@@ -0,0 +1,31 @@
+package com.thenotesapp.api.repository;
+
+import com.thenotesapp.api.model.Note;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+import static com.thenotesapp.api.repository.NoteRepositoryCustomImpl.snapshotById;
+
+class ReactiveNoteRepositoryCustomImpl implements ReactiveNoteRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    ReactiveNoteRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Note> findAndUpdateById(String id, Collection<Long> expectedVersions, Update update) {
+        return mongoTemplate.findAndModify(snapshotById(id, expectedVersions), update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(false), Note.class);
+    }
+
+    @Override
+    public Mono<Note> findAndRemoveById(String id, Collection<Long> expectedVersions) {
+        return mongoTemplate.findAndRemove(snapshotById(id, expectedVersions), Note.class);
+    }
+}
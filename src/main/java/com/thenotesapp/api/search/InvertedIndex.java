@@ -0,0 +1,250 @@
+package com.thenotesapp.api.search;
+
+import com.thenotesapp.api.model.NoteTag;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * In-memory inverted index of notes ranked with BM25.
+ * <p>
+ * Terms are interned to int ids and every term keeps a postings list of (document, term frequency)
+ * pairs in parallel int arrays, sorted by document id. Each document remembers its own terms so it can
+ * be removed from the postings without scanning the dictionary, and each removal finds its entry by
+ * binary search instead of scanning postings that may hold most of the corpus.
+ * <p>
+ * Not thread safe, callers guard it with a read/write lock.
+ */
+public final class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final List<Postings> postings = new ArrayList<>();
+
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private final List<Doc> docs = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private long totalLength;
+    private long postingEntries;
+    private long documentBytes;
+
+    public int documentCount() {
+        return docIds.size();
+    }
+
+    public int termCount() {
+        return termIds.size();
+    }
+
+    /**
+     * Rough retained size: postings and per-document term arrays are 8 bytes per entry, plus the
+     * title and a fixed per-document overhead.
+     */
+    public long estimatedBytes() {
+        return postingEntries * 16 + documentBytes;
+    }
+
+    public void put(String id, String title, LocalDateTime createdDate, Collection<NoteTag> tags,
+                    Map<String, Integer> termFrequencies) {
+        remove(id);
+
+        int docId = freeDocIds.isEmpty() ? docs.size() : freeDocIds.pop();
+        int[] docTerms = new int[termFrequencies.size()];
+        int length = 0;
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            int termId = termIdOf(entry.getKey());
+            int frequency = entry.getValue();
+            postings.get(termId).add(docId, frequency);
+            docTerms[i] = termId;
+            length += frequency;
+            i++;
+        }
+
+        Doc doc = new Doc(id, title == null ? "" : title, createdDate, maskOf(tags), length, docTerms);
+        if (docId == docs.size()) {
+            docs.add(doc);
+        } else {
+            docs.set(docId, doc);
+        }
+        docIds.put(id, docId);
+        totalLength += length;
+        postingEntries += docTerms.length;
+        documentBytes += bytesOf(doc);
+    }
+
+    public boolean remove(String id) {
+        Integer docId = docIds.remove(id);
+        if (docId == null) {
+            return false;
+        }
+        Doc doc = docs.get(docId);
+        for (int termId : doc.terms) {
+            Postings termPostings = postings.get(termId);
+            termPostings.remove(docId);
+            if (termPostings.size == 0) {
+                // keep the id, a later document will very likely reuse the word
+                termPostings.trim();
+            }
+        }
+        docs.set(docId, null);
+        freeDocIds.push(docId);
+        totalLength -= doc.length;
+        postingEntries -= doc.terms.length;
+        documentBytes -= bytesOf(doc);
+        return true;
+    }
+
+    private static long bytesOf(Doc doc) {
+        return 96 + 2L * doc.title.length();
+    }
+
+    public Hits search(Collection<String> queryTerms, Collection<NoteTag> anyOfTags, int offset, int limit) {
+        int documents = documentCount();
+        if (documents == 0 || queryTerms.isEmpty()) {
+            return new Hits(0, List.of());
+        }
+        double averageLength = (double) totalLength / documents;
+        int tagMask = maskOf(anyOfTags);
+
+        Map<Integer, Double> scores = new HashMap<>();
+        for (String term : new HashSet<>(queryTerms)) {
+            Integer termId = termIds.get(term);
+            if (termId == null) {
+                continue;
+            }
+            Postings termPostings = postings.get(termId);
+            double idf = Math.log(1 + (documents - termPostings.size + 0.5) / (termPostings.size + 0.5));
+            for (int p = 0; p < termPostings.length; p++) {
+                int tf = termPostings.freqs[p];
+                if (tf == 0) {
+                    continue;
+                }
+                int docId = termPostings.docs[p];
+                Doc doc = docs.get(docId);
+                if (tagMask != 0 && (doc.tagMask & tagMask) == 0) {
+                    continue;
+                }
+                double norm = K1 * (1 - B + B * doc.length / averageLength);
+                scores.merge(docId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+            }
+        }
+
+        // keep only the best offset + limit hits, worst on top of the heap
+        Comparator<Map.Entry<Integer, Double>> ranking = Map.Entry.<Integer, Double>comparingByValue()
+                .thenComparing(entry -> docs.get(entry.getKey()).createdDate,
+                        Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()));
+        int keep = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(Math.min(keep, 1024) + 1, ranking);
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            best.add(entry);
+            if (best.size() > keep) {
+                best.poll();
+            }
+        }
+
+        List<Hit> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Map.Entry<Integer, Double> entry = best.poll();
+            Doc doc = docs.get(entry.getKey());
+            ranked.add(new Hit(doc.id, doc.title, doc.createdDate, entry.getValue()));
+        }
+        Collections.reverse(ranked);
+        List<Hit> page = offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+        return new Hits(scores.size(), page);
+    }
+
+    private int termIdOf(String term) {
+        Integer termId = termIds.get(term);
+        if (termId == null) {
+            termId = terms.size();
+            termIds.put(term, termId);
+            terms.add(term);
+            postings.add(new Postings());
+        }
+        return termId;
+    }
+
+    private static int maskOf(Collection<NoteTag> tags) {
+        int mask = 0;
+        if (tags != null) {
+            for (NoteTag tag : tags) {
+                mask |= 1 << tag.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    public record Hit(String id, String title, LocalDateTime createdDate, double score) {
+    }
+
+    public record Hits(long total, List<Hit> hits) {
+    }
+
+    private record Doc(String id, String title, LocalDateTime createdDate, int tagMask, int length, int[] terms) {
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int[] freqs = new int[2];
+        // slots in use; a removed document stays behind with frequency 0 until the postings are compacted
+        private int length;
+        // documents containing the term
+        private int size;
+
+        void add(int docId, int frequency) {
+            int i = Arrays.binarySearch(docs, 0, length, docId);
+            if (i >= 0) {
+                // the slot of a removed document whose id was reused
+                freqs[i] = frequency;
+                size++;
+                return;
+            }
+            i = -i - 1;
+            if (length == docs.length) {
+                docs = Arrays.copyOf(docs, length * 2);
+                freqs = Arrays.copyOf(freqs, length * 2);
+            }
+            // new ids are appended, only reused ones move the tail
+            System.arraycopy(docs, i, docs, i + 1, length - i);
+            System.arraycopy(freqs, i, freqs, i + 1, length - i);
+            docs[i] = docId;
+            freqs[i] = frequency;
+            length++;
+            size++;
+        }
+
+        void remove(int docId) {
+            int i = Arrays.binarySearch(docs, 0, length, docId);
+            if (i < 0 || freqs[i] == 0) {
+                return;
+            }
+            freqs[i] = 0;
+            size--;
+            if (size < length / 2) {
+                compact();
+            }
+        }
+
+        void trim() {
+            docs = new int[2];
+            freqs = new int[2];
+            length = 0;
+        }
+
+        private void compact() {
+            int live = 0;
+            for (int i = 0; i < length; i++) {
+                if (freqs[i] != 0) {
+                    docs[live] = docs[i];
+                    freqs[live] = freqs[i];
+                    live++;
+                }
+            }
+            length = live;
+        }
+    }
+}
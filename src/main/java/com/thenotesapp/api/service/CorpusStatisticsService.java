@@ -0,0 +1,243 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.WordStat;
+import com.thenotesapp.api.stats.WordFrequencyCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Word frequencies across all notes and per {@link NoteTag}, kept in the {@code word_stats} collection.
+ * <p>
+ * The aggregate is maintained incrementally from {@link NoteChangedEvent}s: the counts of the old
+ * version of a note are subtracted and the counts of the new one added. Top-K reads are served from an
+ * in-memory cache that is invalidated per scope whenever a delta touches it.
+ */
+@Slf4j
+@Service
+public class CorpusStatisticsService implements ApplicationRunner {
+
+    private static final int PREFETCH = 100;
+    private static final int REBUILD_FLUSH_THRESHOLD = 100_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean rebuildOnStartup;
+    private final long cacheTtlMillis;
+
+    private final Map<String, CachedTop> topCache = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public CorpusStatisticsService(MongoTemplate mongoTemplate,
+                                   @Value("${notes.stats.corpus.rebuild-on-startup:false}") boolean rebuildOnStartup,
+                                   @Value("${notes.stats.corpus.cache-ttl:30s}") Duration cacheTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.cacheTtlMillis = cacheTtl.toMillis();
+    }
+
+    public Map<String, Long> topWords(int limit) {
+        return topWords(WordStat.ALL_NOTES, limit);
+    }
+
+    public Map<String, Long> topWords(NoteTag tag, int limit) {
+        return topWords(tag.name(), limit);
+    }
+
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        Map<String, Map<String, Long>> deltas = new HashMap<>();
+        if (event.before() != null) {
+            collect(deltas, event.before(), -1);
+        }
+        if (event.after() != null) {
+            collect(deltas, event.after(), 1);
+        }
+        try {
+            apply(deltas);
+        } catch (DataAccessException e) {
+            log.error("Could not apply word statistics of note {}, rebuild the corpus statistics to recover",
+                    event.noteId(), e);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (DataAccessException e) {
+            log.error("Corpus statistics rebuild failed", e);
+        }
+    }
+
+    /**
+     * Recomputes the aggregate from every note. Writes arriving meanwhile may be lost, run it while
+     * the notes are not being modified.
+     */
+    public void rebuild() {
+        mongoTemplate.remove(new Query(), WordStat.class);
+        invalidateAll();
+
+        Query query = new Query();
+        query.fields().include("tags", "wordFrequencies");
+        Map<String, Map<String, Long>> pending = new HashMap<>();
+        int pendingWords = 0;
+        long notes = 0;
+        try (Stream<Note> stream = mongoTemplate.stream(query, Note.class)) {
+            Iterator<Note> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Note note = iterator.next();
+                if (note.getWordFrequencies() == null) {
+                    note.setWordFrequencies(frequenciesFromText(note.getId()));
+                }
+                pendingWords += collect(pending, note, 1);
+                notes++;
+                if (pendingWords >= REBUILD_FLUSH_THRESHOLD) {
+                    apply(pending);
+                    pending.clear();
+                    pendingWords = 0;
+                }
+            }
+        }
+        apply(pending);
+        log.info("Rebuilt corpus statistics from {} notes", notes);
+    }
+
+    private Map<String, Long> topWords(String scope, int limit) {
+        AtomicLong generation = generationOf(scope);
+        long current = generation.get();
+        CachedTop cached = topCache.get(scope);
+        if (cached != null && cached.generation() == current && cached.limit() >= limit
+                && cached.expiresAt() > System.currentTimeMillis()) {
+            return prefix(cached.words(), limit);
+        }
+
+        int fetch = Math.max(limit, PREFETCH);
+        Query query = new Query(Criteria.where("scope").is(scope))
+                .with(Sort.by(Sort.Direction.DESC, "count"))
+                .limit(fetch);
+        query.fields().include("word", "count");
+        Map<String, Long> words = new LinkedHashMap<>();
+        for (WordStat stat : mongoTemplate.find(query, WordStat.class)) {
+            words.put(stat.getWord(), stat.getCount());
+        }
+        topCache.put(scope, new CachedTop(words, fetch, current, System.currentTimeMillis() + cacheTtlMillis));
+        return prefix(words, limit);
+    }
+
+    private int collect(Map<String, Map<String, Long>> deltas, Note note, int sign) {
+        Map<String, Long> frequencies = note.getWordFrequencies();
+        if (frequencies == null || frequencies.isEmpty()) {
+            return 0;
+        }
+        int words = 0;
+        for (String scope : scopesOf(note)) {
+            Map<String, Long> scopeDeltas = deltas.computeIfAbsent(scope, s -> new HashMap<>());
+            for (Map.Entry<String, Long> entry : frequencies.entrySet()) {
+                scopeDeltas.merge(entry.getKey(), sign * entry.getValue(), Long::sum);
+            }
+            words += frequencies.size();
+        }
+        return words;
+    }
+
+    private void apply(Map<String, Map<String, Long>> deltas) {
+        BulkOperations bulk = null;
+        Set<String> shrunkScopes = new HashSet<>();
+        for (Map.Entry<String, Map<String, Long>> scopeDeltas : deltas.entrySet()) {
+            String scope = scopeDeltas.getKey();
+            for (Map.Entry<String, Long> delta : scopeDeltas.getValue().entrySet()) {
+                long value = delta.getValue();
+                if (value == 0) {
+                    continue;
+                }
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WordStat.class);
+                }
+                String word = delta.getKey();
+                bulk.upsert(Query.query(Criteria.where("_id").is(WordStat.idOf(scope, word))),
+                        new Update().inc("count", value).setOnInsert("scope", scope).setOnInsert("word", word));
+                if (value < 0) {
+                    shrunkScopes.add(scope);
+                }
+            }
+        }
+        if (bulk == null) {
+            return;
+        }
+        bulk.execute();
+        if (!shrunkScopes.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("scope").in(shrunkScopes).and("count").lte(0)),
+                    WordStat.class);
+        }
+        // bumped after the write so a concurrent load cannot cache pre-write counts as current
+        for (String scope : deltas.keySet()) {
+            generationOf(scope).incrementAndGet();
+            topCache.remove(scope);
+        }
+    }
+
+    private Map<String, Long> frequenciesFromText(String noteId) {
+        Query query = Query.query(Criteria.where("_id").is(noteId));
+        query.fields().include("text");
+        Note note = mongoTemplate.findOne(query, Note.class);
+        return note == null || note.getText() == null ? Map.of() : WordFrequencyCounter.count(note.getText());
+    }
+
+    private static Set<String> scopesOf(Note note) {
+        Set<String> scopes = new HashSet<>();
+        scopes.add(WordStat.ALL_NOTES);
+        if (note.getTags() != null) {
+            for (NoteTag tag : note.getTags()) {
+                scopes.add(tag.name());
+            }
+        }
+        return scopes;
+    }
+
+    private static Map<String, Long> prefix(Map<String, Long> words, int limit) {
+        if (words.size() <= limit) {
+            return words;
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : words.entrySet()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private AtomicLong generationOf(String scope) {
+        return generations.computeIfAbsent(scope, s -> new AtomicLong());
+    }
+
+    private void invalidateAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        topCache.clear();
+    }
+
+    private record CachedTop(Map<String, Long> words, int limit, long generation, long expiresAt) {
+    }
+}
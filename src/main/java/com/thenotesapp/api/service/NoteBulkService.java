@@ -0,0 +1,386 @@
+package com.thenotesapp.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.thenotesapp.api.dto.*;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.repository.NoteRepositoryCustom;
+import com.thenotesapp.api.storage.NoteTextStore;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Executes create/update/delete operations read from a JSON array or NDJSON stream as batched,
+ * unordered Mongo bulk writes, reporting a result per operation.
+ * <p>
+ * Updates and deletes only apply while the note is still at the version read for the batch; an
+ * operation overtaken by a concurrent write reports 409, and events are published only for writes
+ * that applied.
+ */
+@Slf4j
+@Service
+public class NoteBulkService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final NoteService noteService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NoteTextStore textStore;
+    private final int batchSize;
+
+    public NoteBulkService(MongoTemplate mongoTemplate,
+                           NoteService noteService,
+                           ObjectMapper objectMapper,
+                           Validator validator,
+                           ApplicationEventPublisher eventPublisher,
+                           NoteTextStore textStore,
+                           @Value("${notes.bulk.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.noteService = noteService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.textStore = textStore;
+        this.batchSize = batchSize;
+    }
+
+    public BulkResponseDto execute(InputStream body) throws IOException {
+        List<BulkItemResultDto> results = new ArrayList<>();
+        Batch batch = new Batch();
+        int index = 0;
+        try (MappingIterator<BulkOperationDto> operations =
+                     objectMapper.readerFor(BulkOperationDto.class).readValues(body)) {
+            while (true) {
+                BulkOperationDto operation;
+                try {
+                    if (!operations.hasNextValue()) {
+                        break;
+                    }
+                    operation = operations.nextValue();
+                } catch (JsonMappingException e) {
+                    // well-formed JSON that does not fit the operation, the iterator skips past it
+                    results.add(failure(index++, null, null, HttpStatus.BAD_REQUEST, e.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    results.add(failure(index, null, null, HttpStatus.BAD_REQUEST,
+                            "Malformed JSON, remaining operations skipped: " + e.getOriginalMessage()));
+                    break;
+                }
+
+                String invalid = validate(operation);
+                if (invalid != null) {
+                    results.add(failure(index++, operation.getOp(), operation.getId(), HttpStatus.BAD_REQUEST, invalid));
+                    continue;
+                }
+                if (operation.getId() != null && batch.touches(operation.getId())) {
+                    // unordered bulk writes do not keep the order of operations on the same note
+                    flush(batch, results);
+                }
+                batch.add(index++, operation);
+                if (batch.size() == batchSize) {
+                    flush(batch, results);
+                }
+            }
+        }
+        flush(batch, results);
+
+        results.sort(Comparator.comparingInt(BulkItemResultDto::getIndex));
+        int failed = (int) results.stream().filter(result -> result.getError() != null).count();
+        return new BulkResponseDto(results.size() - failed, failed, results);
+    }
+
+    private String validate(BulkOperationDto operation) {
+        if (operation == null || operation.getOp() == null) {
+            return "op is required";
+        }
+        if (operation.getOp() != BulkOperationType.CREATE && (operation.getId() == null || operation.getId().isBlank())) {
+            return "id is required for " + operation.getOp();
+        }
+        if (operation.getOp() != BulkOperationType.DELETE) {
+            if (operation.getNote() == null) {
+                return "note is required for " + operation.getOp();
+            }
+            Set<ConstraintViolation<CreateNoteDto>> violations = validator.validate(operation.getNote());
+            if (!violations.isEmpty()) {
+                return violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining(", "));
+            }
+        }
+        return null;
+    }
+
+    private void flush(Batch batch, List<BulkItemResultDto> results) {
+        if (batch.size() == 0) {
+            return;
+        }
+        Map<String, Note> existing = snapshotsOf(batch.ids());
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+        List<Pending> sent = new ArrayList<>();
+        for (Pending pending : batch.items) {
+            BulkOperationDto operation = pending.operation;
+            switch (operation.getOp()) {
+                case CREATE -> {
+                    Note note = noteService.newNote(operation.getNote());
+                    note.setId(new ObjectId().toHexString());
+                    note.setVersion(0L);
+                    pending.after = note;
+                    bulk.insert(note);
+                }
+                case UPDATE -> {
+                    Note before = existing.get(operation.getId());
+                    if (before == null) {
+                        results.add(notFound(pending));
+                        continue;
+                    }
+                    Note after = noteService.newNote(operation.getNote());
+                    after.setId(before.getId());
+                    after.setCreatedDate(before.getCreatedDate());
+                    after.setVersion(NoteService.versionOf(before) + 1);
+                    pending.before = before;
+                    pending.after = after;
+                    bulk.updateOne(atSnapshotVersion(before), textStore.setEncodedText(new Update()
+                            .set("title", after.getTitle())
+                            .set("tags", after.getTags())
+                            .set("tagMask", after.getTagMask())
+                            .set("wordFrequencies", after.getWordFrequencies())
+                            .inc("version", 1), after));
+                }
+                case DELETE -> {
+                    Note before = existing.get(operation.getId());
+                    if (before == null) {
+                        results.add(notFound(pending));
+                        continue;
+                    }
+                    pending.before = before;
+                    bulk.remove(atSnapshotVersion(before));
+                }
+            }
+            sent.add(pending);
+        }
+        if (!sent.isEmpty()) {
+            write(bulk, sent);
+        }
+
+        for (Pending pending : sent) {
+            if (pending.failure != null) {
+                results.add(failure(pending.index, pending.operation.getOp(), idOf(pending),
+                        pending.failure, pending.error));
+                if (pending.after != null) {
+                    discard(pending.after);
+                }
+                continue;
+            }
+            results.add(new BulkItemResultDto(pending.index, pending.operation.getOp(), idOf(pending),
+                    successStatus(pending.operation.getOp()).value(), null));
+            // the write is applied either way, a failing listener must not cost the rest of the batch its events
+            try {
+                eventPublisher.publishEvent(new NoteChangedEvent(pending.before, pending.after));
+            } catch (RuntimeException e) {
+                log.error("Listener failed for bulk {} of note {}", pending.operation.getOp(), idOf(pending), e);
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Executes the bulk write and marks the operations that did not apply. Mongo reports errors per
+     * operation but only totals of matched and deleted documents, so when updates or deletes fall short
+     * of their snapshot versions the notes they target are read again to tell which of them applied.
+     */
+    private void write(BulkOperations bulk, List<Pending> sent) {
+        BulkWriteResult written;
+        try {
+            written = bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                Pending pending = sent.get(error.getIndex());
+                pending.fail(error.getCode() == DUPLICATE_KEY ? HttpStatus.CONFLICT : HttpStatus.INTERNAL_SERVER_ERROR,
+                        error.getMessage());
+            }
+            written = e.getResult();
+        } catch (RuntimeException e) {
+            // any failure fails the whole batch, rather than the request and the results of earlier batches
+            log.warn("Bulk batch of {} operations failed", sent.size(), e);
+            for (Pending pending : sent) {
+                pending.fail(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+            }
+            return;
+        }
+        resolve(sent, BulkOperationType.UPDATE, written.getMatchedCount());
+        resolve(sent, BulkOperationType.DELETE, written.getDeletedCount());
+    }
+
+    private void resolve(List<Pending> sent, BulkOperationType op, int applied) {
+        List<Pending> candidates = sent.stream()
+                .filter(pending -> pending.operation.getOp() == op && pending.failure == null)
+                .toList();
+        if (candidates.size() == applied) {
+            return;
+        }
+        Map<String, Note> current = currentOf(candidates);
+        List<Pending> maybeApplied = new ArrayList<>();
+        for (Pending pending : candidates) {
+            Note note = current.get(pending.operation.getId());
+            if (op == BulkOperationType.DELETE ? note == null : isWritten(note, pending.after)) {
+                maybeApplied.add(pending);
+            } else if (note == null) {
+                pending.fail(HttpStatus.NOT_FOUND, "Note not found with id: " + pending.operation.getId());
+            } else {
+                pending.fail(HttpStatus.CONFLICT, "Note " + pending.operation.getId()
+                        + " is no longer at version " + NoteService.versionOf(pending.before));
+            }
+        }
+        if (maybeApplied.size() != applied) {
+            // another writer got to some of these notes as well, which ones were ours cannot be told apart
+            if (applied > 0) {
+                log.warn("Bulk {} applied {} operations but {} notes look written, reporting them as conflicts",
+                        op, applied, maybeApplied.size());
+            }
+            for (Pending pending : maybeApplied) {
+                if (op == BulkOperationType.DELETE && applied == 0) {
+                    pending.fail(HttpStatus.NOT_FOUND, "Note not found with id: " + pending.operation.getId());
+                } else {
+                    pending.fail(HttpStatus.CONFLICT, "Note " + pending.operation.getId() + " was changed concurrently");
+                }
+            }
+        }
+    }
+
+    private Map<String, Note> currentOf(List<Pending> pendings) {
+        Query query = new Query(Criteria.where("_id").in(pendings.stream().map(pending -> pending.operation.getId()).toList()));
+        query.fields().include("title", "tagMask", "version");
+        Map<String, Note> current = new HashMap<>();
+        for (Note note : mongoTemplate.find(query, Note.class)) {
+            current.put(note.getId(), note);
+        }
+        return current;
+    }
+
+    private static boolean isWritten(Note current, Note written) {
+        return current != null
+                && NoteService.versionOf(current) == written.getVersion()
+                && Objects.equals(current.getTitle(), written.getTitle())
+                && current.getTagMask() == written.getTagMask();
+    }
+
+    private void discard(Note note) {
+        try {
+            textStore.discard(note);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete the text file of unwritten note {}", note.getId(), e);
+        }
+    }
+
+    private Map<String, Note> snapshotsOf(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include(NoteRepositoryCustom.SNAPSHOT_FIELDS);
+        Map<String, Note> snapshots = new HashMap<>();
+        for (Note note : mongoTemplate.find(query, Note.class)) {
+            snapshots.put(note.getId(), note);
+        }
+        return snapshots;
+    }
+
+    // applies only while the note is still at the version it had when the batch read it; a null
+    // version also matches documents written before versioning
+    private static Query atSnapshotVersion(Note before) {
+        return Query.query(Criteria.where("_id").is(before.getId()).and("version").is(before.getVersion()));
+    }
+
+    private static String idOf(Pending pending) {
+        return pending.after != null ? pending.after.getId() : pending.operation.getId();
+    }
+
+    private static HttpStatus successStatus(BulkOperationType op) {
+        return switch (op) {
+            case CREATE -> HttpStatus.CREATED;
+            case UPDATE -> HttpStatus.OK;
+            case DELETE -> HttpStatus.NO_CONTENT;
+        };
+    }
+
+    private static BulkItemResultDto notFound(Pending pending) {
+        return failure(pending.index, pending.operation.getOp(), pending.operation.getId(), HttpStatus.NOT_FOUND,
+                "Note not found with id: " + pending.operation.getId());
+    }
+
+    private static BulkItemResultDto failure(int index, BulkOperationType op, String id, HttpStatus status, String error) {
+        return new BulkItemResultDto(index, op, id, status.value(), error);
+    }
+
+    private static final class Pending {
+        private final int index;
+        private final BulkOperationDto operation;
+        private Note before;
+        private Note after;
+        private HttpStatus failure;
+        private String error;
+
+        private Pending(int index, BulkOperationDto operation) {
+            this.index = index;
+            this.operation = operation;
+        }
+
+        void fail(HttpStatus failure, String error) {
+            this.failure = failure;
+            this.error = error;
+        }
+    }
+
+    private static final class Batch {
+        private final List<Pending> items = new ArrayList<>();
+        private final Set<String> ids = new HashSet<>();
+
+        void add(int index, BulkOperationDto operation) {
+            items.add(new Pending(index, operation));
+            if (operation.getId() != null) {
+                ids.add(operation.getId());
+            }
+        }
+
+        boolean touches(String id) {
+            return ids.contains(id);
+        }
+
+        Set<String> ids() {
+            return ids;
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        void clear() {
+            items.clear();
+            ids.clear();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.thenotesapp.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.thenotesapp.api.dto.NoteSummaryDto;
+import com.thenotesapp.api.dto.NoteTextDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of note lookups, weighed by the size of the cached value (text length for texts)
+ * and invalidated per note id on every {@link NoteChangedEvent}. Besides the reads themselves it keeps
+ * note versions alone ({@link Kind#VERSION}) to answer conditional requests.
+ * <p>
+ * Loads run outside the cache lock. A load that raced with an invalidation of the same note is
+ * discarded instead of cached, using per-stripe invalidation epochs.
+ */
+@Component
+public class NoteCache {
+
+    public enum Kind {
+        SUMMARY, TEXT, STATS, VERSION
+    }
+
+    private static final int STRIPES = 1024;
+
+    private final Cache<Key, Object> cache;
+    private final AtomicLongArray epochs = new AtomicLongArray(STRIPES);
+
+    public NoteCache(MeterRegistry meterRegistry,
+                     @Value("${notes.cache.enabled:true}") boolean enabled,
+                     @Value("${notes.cache.maximum-weight:67108864}") long maximumWeight,
+                     @Value("${notes.cache.ttl:10m}") Duration ttl) {
+        if (!enabled) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher(NoteCache::weigh)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "notes");
+    }
+
+    public <T> Optional<T> get(Kind kind, String id, Function<String, Optional<T>> loader) {
+        Optional<T> cached = getIfPresent(kind, id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        long epoch = epochOf(id);
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(value -> putIfUnchanged(kind, id, epoch, value));
+        return loaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> getIfPresent(Kind kind, String id) {
+        if (cache == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable((T) cache.getIfPresent(new Key(kind, id)));
+    }
+
+    /**
+     * Invalidation epoch of the note, to be read before loading it and passed to
+     * {@link #putIfUnchanged} once the load completes.
+     */
+    public long epochOf(String id) {
+        return epochs.get(stripeOf(id));
+    }
+
+    /**
+     * Caches a loaded value unless the note was invalidated since {@code epoch} was read.
+     */
+    public void putIfUnchanged(Kind kind, String id, long epoch, Object value) {
+        if (cache == null) {
+            return;
+        }
+        int stripe = stripeOf(id);
+        cache.asMap().compute(new Key(kind, id), (k, current) ->
+                epochs.get(stripe) == epoch ? value : current);
+    }
+
+    public void invalidate(String id) {
+        if (cache == null) {
+            return;
+        }
+        // epoch first: a load that already read the old note cannot cache it after this point
+        epochs.incrementAndGet(stripeOf(id));
+        for (Kind kind : Kind.values()) {
+            cache.invalidate(new Key(kind, id));
+        }
+    }
+
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        invalidate(event.noteId());
+    }
+
+    private static int stripeOf(String id) {
+        return (id.hashCode() & Integer.MAX_VALUE) % STRIPES;
+    }
+
+    private static int weigh(Key key, Object value) {
+        if (value instanceof Versioned<?> versioned) {
+            return 8 + weigh(key, versioned.value());
+        }
+        if (value instanceof NoteTextDto text) {
+            return 32 + (text.getText() == null ? 0 : text.getText().length());
+        }
+        if (value instanceof NoteSummaryDto summary) {
+            return 64 + (summary.getTitle() == null ? 0 : summary.getTitle().length());
+        }
+        if (value instanceof Map<?, ?> stats) {
+            int weight = 32;
+            for (Object word : stats.keySet()) {
+                weight += 24 + ((String) word).length();
+            }
+            return weight;
+        }
+        return 64;
+    }
+
+    private record Key(Kind kind, String id) {
+    }
+}
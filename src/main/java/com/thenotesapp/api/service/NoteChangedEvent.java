@@ -0,0 +1,28 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.model.Note;
+
+/**
+ * Published by {@link NoteService} after a note was written.
+ * <p>
+ * {@code before} is null for a created note and {@code after} is null for a deleted one.
+ * {@code before} is a projection: it carries the id, tags and word frequencies but no text.
+ */
+public record NoteChangedEvent(Note before, Note after) {
+
+    public static NoteChangedEvent created(Note note) {
+        return new NoteChangedEvent(null, note);
+    }
+
+    public static NoteChangedEvent updated(Note before, Note after) {
+        return new NoteChangedEvent(before, after);
+    }
+
+    public static NoteChangedEvent deleted(Note note) {
+        return new NoteChangedEvent(note, null);
+    }
+
+    public String noteId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
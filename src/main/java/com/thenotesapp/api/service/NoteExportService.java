@@ -0,0 +1,94 @@
+package com.thenotesapp.api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.thenotesapp.api.dto.NoteDetailDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.storage.NoteTextStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes notes as NDJSON straight from a Mongo cursor, one document in memory at a time.
+ */
+@Service
+public class NoteExportService {
+
+    // same order as the createdDate_id_tagMask index, so Mongo never sorts in memory
+    private static final Sort EXPORT_SORT = Sort.by(Sort.Direction.DESC, "createdDate", "id");
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter noteWriter;
+    private final NoteTextStore textStore;
+    private final int batchSize;
+
+    public NoteExportService(MongoTemplate mongoTemplate,
+                             ObjectMapper objectMapper,
+                             NoteTextStore textStore,
+                             @Value("${notes.export.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        // the generator flushes whenever its buffer fills, flushing after every note would only add syscalls
+        this.noteWriter = objectMapper.writerFor(NoteDetailDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.textStore = textStore;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Streams every note matching the filters to {@code out}, newest first. Any of the filters may be null.
+     *
+     * @return the number of notes written
+     */
+    public long export(List<NoteTag> tags, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        Query query = new Query().with(EXPORT_SORT);
+        if (tags != null && !tags.isEmpty()) {
+            query.addCriteria(Criteria.where("tagMask").bits().anySet(NoteTag.mask(tags)));
+        }
+        if (from != null || to != null) {
+            Criteria createdDate = Criteria.where("createdDate");
+            if (from != null) {
+                createdDate.gte(from);
+            }
+            if (to != null) {
+                createdDate.lt(to);
+            }
+            query.addCriteria(createdDate);
+        }
+        query.fields().include("title", "text", "compressedText", "textFileId", "createdDate", "tags");
+        query.cursorBatchSize(batchSize);
+
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<Note> notes = mongoTemplate.stream(query, Note.class)) {
+            // the caller owns the output stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // lines are separated by the newline alone, not the default space before every further root value
+            generator.setRootValueSeparator(null);
+            Iterator<Note> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                Note note = iterator.next();
+                noteWriter.writeValue(generator, new NoteDetailDto(
+                        note.getId(), note.getTitle(), textStore.read(note), note.getTags(), note.getCreatedDate()));
+                generator.writeRaw('\n');
+                written++;
+            }
+        }
+        return written;
+    }
+}
@@ -0,0 +1,246 @@
+package com.thenotesapp.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.ImportErrorDto;
+import com.thenotesapp.api.dto.ImportSummaryDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.storage.NoteTextStore;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a JSON array or NDJSON stream of notes of any size. Records are parsed one at a time and
+ * written in batches on the task executor; once {@code notes.import.max-in-flight} batches are
+ * waiting for Mongo the request body stops being read, so memory is bounded by
+ * {@code (max-in-flight + 1) * batch-size} notes.
+ */
+@Slf4j
+@Service
+public class NoteImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final long PROGRESS_LOG_INTERVAL = 100_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final NoteService noteService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NoteTextStore textStore;
+    private final Executor executor;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    public NoteImportService(MongoTemplate mongoTemplate,
+                             NoteService noteService,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             ApplicationEventPublisher eventPublisher,
+                             NoteTextStore textStore,
+                             @Qualifier("applicationTaskExecutor") Executor executor,
+                             @Value("${notes.import.batch-size:1000}") int batchSize,
+                             @Value("${notes.import.max-in-flight:4}") int maxInFlight) {
+        this.mongoTemplate = mongoTemplate;
+        this.noteService = noteService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.textStore = textStore;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public ImportSummaryDto importNotes(InputStream body) throws IOException {
+        Run run = new Run();
+        List<Note> batch = new ArrayList<>(batchSize);
+        List<Long> records = new ArrayList<>(batchSize);
+        long record = 0;
+        try (MappingIterator<CreateNoteDto> notes =
+                     objectMapper.readerFor(CreateNoteDto.class).readValues(body)) {
+            while (true) {
+                CreateNoteDto dto;
+                try {
+                    if (!notes.hasNextValue()) {
+                        break;
+                    }
+                    dto = notes.nextValue();
+                } catch (JsonMappingException e) {
+                    // well-formed JSON that is not a note, the iterator skips past it
+                    run.fail(record++, e.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException e) {
+                    run.fail(record, "Malformed JSON, remaining records skipped: " + e.getOriginalMessage());
+                    break;
+                }
+
+                String invalid = validate(dto);
+                if (invalid != null) {
+                    run.fail(record++, invalid);
+                    continue;
+                }
+                Note note = noteService.newNote(dto);
+                note.setId(new ObjectId().toHexString());
+                note.setVersion(0L);
+                batch.add(note);
+                records.add(record++);
+                if (batch.size() == batchSize) {
+                    run.submit(batch, records);
+                    batch = new ArrayList<>(batchSize);
+                    records = new ArrayList<>(batchSize);
+                }
+                if (record % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("Import read {} records, {} imported so far", record, run.imported.get());
+                }
+            }
+            if (!batch.isEmpty()) {
+                run.submit(batch, records);
+            }
+        } finally {
+            run.awaitWrites();
+        }
+        return run.summary(record);
+    }
+
+    private String validate(CreateNoteDto dto) {
+        if (dto == null) {
+            return "Record is empty";
+        }
+        Set<ConstraintViolation<CreateNoteDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void write(List<Note> batch, List<Long> records, Run run) {
+        Map<Integer, String> errors = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)
+                    .insert(batch)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            // any failure counts the batch as failed, rather than leaving it out of the summary
+            log.warn("Import batch of {} notes failed", batch.size(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                errors.put(i, e.getMessage());
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Note note = batch.get(i);
+            String error = errors.get(i);
+            if (error != null) {
+                run.fail(records.get(i), error);
+                discard(note);
+                continue;
+            }
+            run.imported.incrementAndGet();
+            // the note is stored either way, a failing listener must not cost the rest of the batch its events
+            try {
+                eventPublisher.publishEvent(NoteChangedEvent.created(note));
+            } catch (RuntimeException e) {
+                log.error("Listener failed for imported note {}", note.getId(), e);
+            }
+        }
+    }
+
+    private void discard(Note note) {
+        try {
+            textStore.discard(note);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete the text file of unimported note {}", note.getId(), e);
+        }
+    }
+
+    /**
+     * State of a single import request, shared between the reading request thread and the writers.
+     */
+    private final class Run {
+        private final long started = System.nanoTime();
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger batches = new AtomicInteger();
+        private final Queue<ImportErrorDto> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger reportedErrors = new AtomicInteger();
+
+        void submit(List<Note> batch, List<Long> records) {
+            // blocks the reader, and with it the client upload, while Mongo is behind
+            acquire(1);
+            batches.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        write(batch, records, this);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                write(batch, records, this);
+            }
+        }
+
+        void awaitWrites() {
+            acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+
+        void fail(long record, String error) {
+            failed.incrementAndGet();
+            if (reportedErrors.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                errors.add(new ImportErrorDto(record, error));
+            }
+        }
+
+        ImportSummaryDto summary(long received) {
+            List<ImportErrorDto> reported = new ArrayList<>(errors);
+            reported.sort(Comparator.comparingLong(ImportErrorDto::getRecord));
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            log.info("Imported {} of {} notes in {} ms", imported.get(), received, elapsedMillis);
+            return new ImportSummaryDto(received, imported.get(), failed.get(), batches.get(), elapsedMillis,
+                    reported, reportedErrors.get() > MAX_REPORTED_ERRORS);
+        }
+
+        private void acquire(int permits) {
+            try {
+                inFlight.acquire(permits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", e);
+            }
+        }
+    }
+}
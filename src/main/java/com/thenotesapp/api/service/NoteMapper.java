@@ -0,0 +1,35 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.NoteDetailDto;
+import com.thenotesapp.api.dto.NoteSummaryDto;
+import com.thenotesapp.api.model.Note;
+
+/**
+ * Field by field mapping between {@link Note} and its DTOs, in place of {@code ObjectMapper.convertValue},
+ * which writes every value to a token buffer and parses it back. {@code NoteMapperTest} fails when a
+ * field is added to one side only.
+ */
+public final class NoteMapper {
+
+    private NoteMapper() {
+    }
+
+    /**
+     * A new note with the fields of the request; derived fields are left to the caller.
+     */
+    public static Note toNote(CreateNoteDto dto) {
+        return new Note(null, dto.getTitle(), dto.getText(), null, dto.getTags());
+    }
+
+    /**
+     * @param text the plain text, as the note's own may already be stored compressed or in GridFS
+     */
+    public static NoteDetailDto toDetail(Note note, String text) {
+        return new NoteDetailDto(note.getId(), note.getTitle(), text, note.getTags(), note.getCreatedDate());
+    }
+
+    public static NoteSummaryDto toSummary(Note note) {
+        return new NoteSummaryDto(note.getId(), note.getTitle(), note.getCreatedDate());
+    }
+}
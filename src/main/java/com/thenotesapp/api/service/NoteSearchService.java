@@ -0,0 +1,202 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.dto.NoteSummaryDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.search.InvertedIndex;
+import com.thenotesapp.api.stats.WordFrequencyCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over note titles and texts, served from an in-process {@link InvertedIndex}.
+ * <p>
+ * The index is loaded from the notes collection in the background at startup and kept current
+ * through {@link NoteChangedEvent}s. Texts are indexed from the stored word frequencies, so neither
+ * the load nor the updates need the note text itself.
+ */
+@Slf4j
+@Service
+public class NoteSearchService implements ApplicationRunner {
+
+    // a title word weighs as much as this many occurrences in the text
+    private static final int TITLE_BOOST = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final Executor executor;
+    private final boolean loadOnStartup;
+    private final Timer queryTimer;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // ids written through events while a load is running, the load must not overwrite them
+    private Set<String> changedDuringLoad;
+
+    public NoteSearchService(MongoTemplate mongoTemplate,
+                             MeterRegistry meterRegistry,
+                             @Qualifier("applicationTaskExecutor") Executor executor,
+                             @Value("${notes.search.load-on-startup:true}") boolean loadOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+        this.loadOnStartup = loadOnStartup;
+        this.queryTimer = Timer.builder("notes.search.query")
+                .description("Latency of full-text queries against the in-memory index")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("notes.search.index.documents", this, search -> search.read(InvertedIndex::documentCount))
+                .register(meterRegistry);
+        Gauge.builder("notes.search.index.terms", this, search -> search.read(InvertedIndex::termCount))
+                .register(meterRegistry);
+        Gauge.builder("notes.search.index.bytes", this, search -> search.read(InvertedIndex::estimatedBytes))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("notes.search.index.bytes.per.note", this, NoteSearchService::bytesPerNote)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the page is negative, the size is not positive or the page
+     *                                  starts beyond the largest offset
+     */
+    public Page<NoteSummaryDto> search(String query, List<NoteTag> tags, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Page must not be negative and size must be positive");
+        }
+        int offset;
+        try {
+            offset = Math.multiplyExact(page, size);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Page is too large");
+        }
+        Set<String> terms = WordFrequencyCounter.count(query).keySet();
+        InvertedIndex.Hits hits = queryTimer.record(() -> read(index -> index.search(terms, tags, offset, size)));
+
+        List<NoteSummaryDto> content = hits.hits().stream()
+                .map(hit -> new NoteSummaryDto(hit.id(), hit.title(), hit.createdDate()))
+                .toList();
+        return new PageImpl<>(content, PageRequest.of(page, size), hits.total());
+    }
+
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(event.noteId());
+            }
+            if (event.after() == null) {
+                index.remove(event.noteId());
+            } else {
+                put(event.after());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (loadOnStartup) {
+            executor.execute(this::load);
+        }
+    }
+
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = ConcurrentHashMap.newKeySet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Query query = new Query();
+        query.fields().include("title", "createdDate", "tags", "wordFrequencies");
+        long loaded = 0;
+        try (Stream<Note> notes = mongoTemplate.stream(query, Note.class)) {
+            Iterator<Note> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                Note note = iterator.next();
+                if (note.getWordFrequencies() == null) {
+                    note.setWordFrequencies(frequenciesFromText(note.getId()));
+                }
+                lock.writeLock().lock();
+                try {
+                    if (!changedDuringLoad.contains(note.getId())) {
+                        put(note);
+                        loaded++;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            log.info("Loaded {} notes into the search index", loaded);
+        } catch (DataAccessException e) {
+            log.error("Could not load the search index, {} notes loaded", loaded, e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void put(Note note) {
+        Map<String, Integer> terms = new HashMap<>();
+        if (note.getWordFrequencies() != null) {
+            note.getWordFrequencies().forEach((word, count) -> terms.put(word, count.intValue()));
+        }
+        if (note.getTitle() != null) {
+            WordFrequencyCounter.count(note.getTitle()).forEach((word, count) ->
+                    terms.merge(word, count.intValue() * TITLE_BOOST, Integer::sum));
+        }
+        index.put(note.getId(), note.getTitle(), note.getCreatedDate(), note.getTags(), terms);
+    }
+
+    private Map<String, Long> frequenciesFromText(String noteId) {
+        Query query = Query.query(Criteria.where("_id").is(noteId));
+        query.fields().include("text");
+        Note note = mongoTemplate.findOne(query, Note.class);
+        return note == null || note.getText() == null ? Map.of() : WordFrequencyCounter.count(note.getText());
+    }
+
+    private double bytesPerNote() {
+        return read(index -> index.documentCount() == 0
+                ? 0.0
+                : (double) index.estimatedBytes() / index.documentCount());
+    }
+
+    private <T> T read(Function<InvertedIndex, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
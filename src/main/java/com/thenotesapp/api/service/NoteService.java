@@ -1,107 +1,259 @@
 package com.thenotesapp.api.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.CursorPageDto;
 import com.thenotesapp.api.dto.NoteDetailDto;
 import com.thenotesapp.api.dto.NoteSummaryDto;
 import com.thenotesapp.api.dto.NoteTextDto;
+import com.thenotesapp.api.dto.PatchNoteDto;
 import com.thenotesapp.api.model.Note;
 import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.TagMatch;
 import com.thenotesapp.api.repository.NoteRepository;
+import com.thenotesapp.api.stats.WordFrequencyCounter;
+import com.thenotesapp.api.storage.NoteTextStore;
+import com.thenotesapp.api.stats.WordStatisticsFilter;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "notes.service", histogram = true)
 public class NoteService {
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdDate", "id");
+
     private final NoteRepository noteRepository;
-    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NoteCache noteCache;
+    private final NoteTextStore textStore;
+    private final DistributionSummary tokenizedTextSize;
 
-    public NoteService(NoteRepository noteRepository, ObjectMapper objectMapper) {
+    public NoteService(NoteRepository noteRepository,
+                       ApplicationEventPublisher eventPublisher, NoteCache noteCache, NoteTextStore textStore,
+                       MeterRegistry meterRegistry) {
         this.noteRepository = noteRepository;
-        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.noteCache = noteCache;
+        this.textStore = textStore;
+        this.tokenizedTextSize = DistributionSummary.builder("notes.statistics.text.size")
+                .description("Length of the texts tokenized into word frequencies")
+                .baseUnit("characters")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     public NoteDetailDto create(CreateNoteDto createDto) {
-        Note note = objectMapper.convertValue(createDto, Note.class);
+        Note saved = noteRepository.save(newNote(createDto));
+        eventPublisher.publishEvent(NoteChangedEvent.created(saved));
+        return NoteMapper.toDetail(saved, createDto.getText());
+    }
+
+    /**
+     * Builds the document of a new note with every field derived on write, without saving it.
+     * Its text may already be moved into {@code compressedText} or a GridFS file.
+     */
+    public Note newNote(CreateNoteDto createDto) {
+        Note note = NoteMapper.toNote(createDto);
         note.setCreatedDate(LocalDateTime.now()
         );
-        Note saved = noteRepository.save(note);
-        return objectMapper.convertValue(saved, NoteDetailDto.class);
+        note.setWordFrequencies(getNoteStatistics(note.getText()));
+        textStore.encode(note);
+        return note;
     }
 
-    public NoteDetailDto update(String id, CreateNoteDto createNoteDto) {
-        Note existing = noteRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Note not found"));
-
-        existing.setTitle(createNoteDto.getTitle());
-        existing.setText(createNoteDto.getText());
-        existing.setTags(createNoteDto.getTags());
+    /**
+     * Replaces the note. With non-null {@code expectedVersions} (from {@code If-Match}) the update only
+     * applies if the note is still at one of those versions.
+     *
+     * @throws NoSuchElementException if there is no such note
+     * @throws OptimisticLockingFailureException if the note is at another version
+     */
+    public Versioned<NoteDetailDto> update(String id, CreateNoteDto createNoteDto, Collection<Long> expectedVersions) {
+        Note updated = new Note(id, createNoteDto.getTitle(), createNoteDto.getText(), null, createNoteDto.getTags());
+        updated.setWordFrequencies(getNoteStatistics(createNoteDto.getText()));
+        textStore.encode(updated);
+        Optional<Note> before = noteRepository.findAndUpdateById(id, expectedVersions, textStore.setEncodedText(new Update()
+                .set("title", updated.getTitle())
+                .set("tags", updated.getTags())
+                .set("tagMask", updated.getTagMask())
+                .set("wordFrequencies", updated.getWordFrequencies()), updated));
+        if (before.isEmpty()) {
+            textStore.discard(updated);
+            throw missingOrModified(id, expectedVersions);
+        }
 
-        Note updated = noteRepository.save(existing);
-        return objectMapper.convertValue(updated, NoteDetailDto.class);
+        updated.setCreatedDate(before.get().getCreatedDate());
+        updated.setVersion(nextVersion(before.get()));
+        eventPublisher.publishEvent(NoteChangedEvent.updated(before.get(), updated));
+        return Versioned.of(NoteMapper.toDetail(updated, createNoteDto.getText()), updated.getVersion());
     }
 
-    public void deleteNote(String id) {
-        if (!noteRepository.existsById(id)) {
-            throw new NoSuchElementException("Note not found with id: " + id);
+    /**
+     * Sets only the provided fields; a tags-only patch neither reads nor rewrites the text.
+     * Preconditions work as for {@link #update}.
+     */
+    public Versioned<NoteSummaryDto> patch(String id, PatchNoteDto patch, Collection<Long> expectedVersions) {
+        Update update = new Update();
+        if (patch.getTitle() != null) {
+            update.set("title", patch.getTitle());
+        }
+        if (patch.getTags() != null) {
+            update.set("tags", patch.getTags()).set("tagMask", NoteTag.mask(patch.getTags()));
+        }
+        Note text = null;
+        if (patch.getText() != null) {
+            text = new Note();
+            text.setText(patch.getText());
+            text.setWordFrequencies(getNoteStatistics(patch.getText()));
+            textStore.encode(text);
+            textStore.setEncodedText(update, text).set("wordFrequencies", text.getWordFrequencies());
+        }
+        Optional<Note> found = noteRepository.findAndUpdateById(id, expectedVersions, update);
+        if (found.isEmpty()) {
+            if (text != null) {
+                textStore.discard(text);
+            }
+            throw missingOrModified(id, expectedVersions);
         }
-        noteRepository.deleteById(id);
+
+        Note before = found.get();
+        Note patched = new Note(id,
+                patch.getTitle() != null ? patch.getTitle() : before.getTitle(),
+                null,
+                before.getCreatedDate(),
+                patch.getTags() != null ? patch.getTags() : before.getTags());
+        patched.setWordFrequencies(text != null ? text.getWordFrequencies() : before.getWordFrequencies());
+        patched.setTextFileId(text != null ? text.getTextFileId() : before.getTextFileId());
+        patched.setVersion(nextVersion(before));
+        eventPublisher.publishEvent(NoteChangedEvent.updated(before, patched));
+        return Versioned.of(NoteMapper.toSummary(patched), patched.getVersion());
+    }
+
+    /**
+     * Deletes the note. Preconditions work as for {@link #update}.
+     */
+    public void deleteNote(String id, Collection<Long> expectedVersions) {
+        Note deleted = noteRepository.findAndRemoveById(id, expectedVersions)
+                .orElseThrow(() -> missingOrModified(id, expectedVersions));
+        eventPublisher.publishEvent(NoteChangedEvent.deleted(deleted));
+    }
+
+    /**
+     * Current version of the note, from the cache or a version-only read.
+     */
+    public Optional<Long> getVersion(String id) {
+        return noteCache.get(NoteCache.Kind.VERSION, id, key -> noteRepository.findVersionById(key)
+                .map(NoteService::versionOf));
+    }
+
+    public Optional<Versioned<NoteSummaryDto>> getById(String id) {
+        return noteCache.get(NoteCache.Kind.SUMMARY, id, key -> noteRepository.findSummaryById(key)
+                .map(note -> Versioned.of(NoteMapper.toSummary(note), note.getVersion())));
     }
 
-    public Optional<NoteSummaryDto> getById(String id) {
-        return noteRepository.findById(id)
-                .map(note -> new NoteSummaryDto(
-                        note.getId(),
-                        note.getTitle(),
-                        note.getCreatedDate()
-                ));
+    public Optional<Versioned<NoteTextDto>> getTextById(String id) {
+        return noteCache.get(NoteCache.Kind.TEXT, id, key -> noteRepository.findTextById(key)
+                .map(note -> Versioned.of(new NoteTextDto(textStore.read(note)), note.getVersion())));
     }
 
-    public Optional<NoteTextDto> getTextById(String id) {
-        return noteRepository.findById(id)
-                .map(note -> new NoteTextDto(note.getText()));
+    /**
+     * The text as UTF-8 bytes that can be served by range; texts stored in GridFS are not loaded.
+     * Not cached, unlike {@link #getTextById}.
+     */
+    public Optional<Versioned<Resource>> getTextResourceById(String id) {
+        return noteRepository.findTextById(id)
+                .map(note -> Versioned.of(textStore.resource(note), note.getVersion()));
     }
 
-    public Page<NoteSummaryDto> listNotes(List<NoteTag> tags, int page, int size) {
+    public Optional<Versioned<Map<String, Long>>> getStatisticsById(String id, WordStatisticsFilter filter) {
+        Optional<Versioned<Map<String, Long>>> frequencies = noteCache.get(NoteCache.Kind.STATS, id, key ->
+                noteRepository.findWordFrequenciesById(key)
+                        .map(note -> Versioned.of(note.getWordFrequencies() != null
+                                ? note.getWordFrequencies()
+                                // not backfilled yet, fall back to tokenizing the text
+                                : noteRepository.findTextById(key)
+                                        .map(withText -> getNoteStatistics(textStore.read(withText)))
+                                        .orElseGet(Map::of), note.getVersion())));
+        return frequencies.map(stats -> new Versioned<>(filter.apply(stats.value()), stats.version()));
+    }
+
+    /**
+     * @param match how {@code tags} filter the notes; ignored without tags
+     */
+    public Page<NoteSummaryDto> listNotes(List<NoteTag> tags, TagMatch match, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDate"));
         Page<Note> notesPage = (tags == null || tags.isEmpty())
-                ? noteRepository.findAll(pageable)
-                : noteRepository.findByTagsIn(tags, pageable);
+                ? noteRepository.findSummariesBy(pageable)
+                : noteRepository.findSummariesByTagMask(match.filter(tags), pageable);
 
-        return notesPage.map(note -> new NoteSummaryDto(
-                note.getId(),
-                note.getTitle(),
-                note.getCreatedDate()
-        ));
+        return notesPage.map(NoteMapper::toSummary);
+    }
+
+    public CursorPageDto<NoteSummaryDto> listNotesAfter(List<NoteTag> tags, TagMatch match, String after, int size) {
+        Pageable pageable = PageRequest.of(0, size, KEYSET_SORT);
+        NoteCursor cursor = (after == null || after.isBlank()) ? null : NoteCursor.decode(after);
+        boolean allTags = tags == null || tags.isEmpty();
+
+        Slice<Note> slice;
+        if (cursor == null) {
+            slice = allTags
+                    ? noteRepository.findAllBy(pageable)
+                    : noteRepository.findSliceByTagMask(match.filter(tags), pageable);
+        } else {
+            slice = allTags
+                    ? noteRepository.findAllAfter(cursor.createdDate(), cursor.id(), pageable)
+                    : noteRepository.findByTagMaskAfter(match.filter(tags), cursor.createdDate(), cursor.id(), pageable);
+        }
+
+        List<Note> notes = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !notes.isEmpty()) {
+            Note last = notes.get(notes.size() - 1);
+            next = new NoteCursor(last.getCreatedDate(), new ObjectId(last.getId())).encode();
+        }
+
+        List<NoteSummaryDto> content = notes.stream()
+                .map(NoteMapper::toSummary)
+                .toList();
+        return new CursorPageDto<>(content, content.size(), next);
     }
 
     public Map<String, Long> getNoteStatistics(String text) {
         if (text == null || text.isBlank()) {
             return Map.of();
         }
+        tokenizedTextSize.record(text.length());
+        return WordFrequencyCounter.count(text);
+    }
+
+    private RuntimeException missingOrModified(String id, Collection<Long> expectedVersions) {
+        if (expectedVersions != null && noteRepository.existsById(id)) {
+            return new OptimisticLockingFailureException(
+                    "Note " + id + " is no longer at version " + expectedVersions);
+        }
+        return new NoSuchElementException("Note not found with id: " + id);
+    }
+
+    private static long nextVersion(Note before) {
+        return versionOf(before) + 1;
+    }
 
-        String[] words = text.toLowerCase()
-                .replaceAll("[^a-zA-Zа-яА-Я0-9\\s]", "")
-                .split("\\s+");
-
-        Map<String, Long> frequencyMap = Arrays.stream(words)
-                .filter(w -> !w.isBlank())
-                .collect(Collectors.groupingBy(w -> w, Collectors.counting()));
-
-        return frequencyMap.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
+    // documents written before versioning have no version yet
+    static long versionOf(Note note) {
+        return note.getVersion() == null ? 0 : note.getVersion();
     }
 }
\ No newline at end of file
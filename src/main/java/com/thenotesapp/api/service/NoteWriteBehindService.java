@@ -0,0 +1,321 @@
+package com.thenotesapp.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.bulk.BulkWriteError;
+import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.NoteDetailDto;
+import com.thenotesapp.api.dto.NoteWriteState;
+import com.thenotesapp.api.dto.NoteWriteStatusDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.repository.NoteRepository;
+import com.thenotesapp.api.storage.NoteTextStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind creation of notes for bursty ingestion. A note gets its ObjectId on the request thread and
+ * goes into a bounded queue; a single writer inserts queued notes with one unordered bulk insert as soon as
+ * {@code notes.write-behind.batch-size} of them are waiting or the oldest has waited
+ * {@code notes.write-behind.linger}, so concurrent creates share a round trip instead of each making one.
+ * <p>
+ * A queued note is not readable until its batch is written; {@link #status} tells pending, written and
+ * failed notes apart. Notes still queued at shutdown are written after the web server stopped accepting
+ * requests and before the Mongo client closes.
+ */
+@Slf4j
+@Service
+public class NoteWriteBehindService implements SmartLifecycle {
+
+    // how often a waiting writer checks whether it should stop
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MongoTemplate mongoTemplate;
+    private final NoteService noteService;
+    private final NoteRepository noteRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NoteTextStore textStore;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Duration strictTimeout;
+    private final BlockingQueue<Pending> queue;
+    // queued or being written, by note id
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    // recent failures by note id, for status requests after the fact
+    private final Cache<String, String> failures = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+    private final DistributionSummary batchSizes;
+    private volatile boolean running;
+    private Thread writer;
+
+    public NoteWriteBehindService(MongoTemplate mongoTemplate,
+                                  NoteService noteService,
+                                  NoteRepository noteRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  NoteTextStore textStore,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notes.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${notes.write-behind.capacity:10000}") int capacity,
+                                  @Value("${notes.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${notes.write-behind.linger:10ms}") Duration linger,
+                                  @Value("${notes.write-behind.strict-timeout:5s}") Duration strictTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.noteService = noteService;
+        this.noteRepository = noteRepository;
+        this.eventPublisher = eventPublisher;
+        this.textStore = textStore;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.strictTimeout = strictTimeout;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        Gauge.builder("notes.write.behind.queue", queue, Collection::size)
+                .description("Notes waiting to be inserted")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("notes.write.behind.batch.size")
+                .description("Notes inserted per write-behind round trip")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a new note for the next batch.
+     *
+     * @throws RejectedExecutionException if the queue is full or the writer is not running
+     */
+    public QueuedNote enqueue(CreateNoteDto createDto) {
+        Note note = noteService.newNote(createDto);
+        note.setId(new ObjectId().toHexString());
+        note.setVersion(0L);
+        Pending entry = new Pending(note, createDto.getText(), new CompletableFuture<>());
+        pending.put(note.getId(), entry);
+        if (!running || !queue.offer(entry)) {
+            pending.remove(note.getId());
+            textStore.discard(note);
+            throw new RejectedExecutionException(running ? "Too many notes waiting to be written" : "Note writer is not running");
+        }
+        return new QueuedNote(note.getId(), entry.written());
+    }
+
+    /**
+     * Waits for the batch holding the note, for at most {@code notes.write-behind.strict-timeout}.
+     *
+     * @return the created note, or empty if it is still waiting when the timeout passes
+     * @throws IllegalStateException if the note could not be written
+     */
+    public Optional<NoteDetailDto> awaitWritten(QueuedNote queued) {
+        try {
+            return Optional.of(queued.written().get(strictTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Non-blocking {@link #awaitWritten}: completes with the created note, with empty once
+     * {@code notes.write-behind.strict-timeout} passed, or exceptionally if the note could not be written.
+     */
+    public CompletableFuture<Optional<NoteDetailDto>> whenWritten(QueuedNote queued) {
+        return queued.written()
+                .thenApply(Optional::of)
+                .completeOnTimeout(Optional.empty(), strictTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public Optional<NoteWriteStatusDto> status(String id) {
+        if (pending.containsKey(id)) {
+            return Optional.of(new NoteWriteStatusDto(id, NoteWriteState.PENDING, null));
+        }
+        String error = failures.getIfPresent(id);
+        if (error != null) {
+            return Optional.of(new NoteWriteStatusDto(id, NoteWriteState.FAILED, error));
+        }
+        // written by this or another instance, or created synchronously
+        return noteRepository.existsById(id)
+                ? Optional.of(new NoteWriteStatusDto(id, NoteWriteState.WRITTEN, null))
+                : Optional.empty();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("notes-write-behind").daemon().start(this::writeLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // lower phases stop later: after the web server, so no request queues a note once the writer drained the queue
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        try {
+            while (running || !queue.isEmpty()) {
+                List<Pending> batch = new ArrayList<>(batchSize);
+                try {
+                    Pending first = queue.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.nanoTime() + lingerNanos;
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        // once stopping nothing else arrives, so the batch is written without lingering
+                        if (batch.size() == batchSize || remaining <= 0 || !running) {
+                            break;
+                        }
+                        Pending next = queue.poll(Math.min(remaining, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+                        if (next != null) {
+                            batch.add(next);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Note writer interrupted, {} notes left unwritten", queue.size());
+                    write(batch);
+                    return;
+                }
+                write(batch);
+            }
+        } catch (RuntimeException | Error e) {
+            log.error("Note writer failed, {} notes left unwritten", pending.size(), e);
+            throw e;
+        } finally {
+            // whatever ended the writer, nothing may stay pending: creates get 503 and waiting callers an error
+            running = false;
+            queue.clear();
+            pending.values().forEach(entry -> fail(entry, "Note writer stopped before the note was written"));
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            log.error("Could not complete the write-behind batch of {} notes", batch.size(), e);
+            batch.forEach(entry -> fail(entry, e.getMessage()));
+        }
+    }
+
+    private void insert(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        Map<Integer, String> errors = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)
+                    .insert(batch.stream().map(Pending::note).toList())
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Write-behind batch of {} notes failed", batch.size(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                errors.put(i, e.getMessage());
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Pending entry = batch.get(i);
+            String error = errors.get(i);
+            if (error != null) {
+                fail(entry, error);
+                continue;
+            }
+            // listeners first, so a strict caller reading its note back finds it in the search index and counts
+            try {
+                eventPublisher.publishEvent(NoteChangedEvent.created(entry.note()));
+            } catch (RuntimeException e) {
+                log.error("Listener failed for written note {}", entry.note().getId(), e);
+            }
+            pending.remove(entry.note().getId());
+            entry.written().complete(NoteMapper.toDetail(entry.note(), entry.text()));
+        }
+    }
+
+    // no-op for an entry that was already completed
+    private void fail(Pending entry, String error) {
+        String id = entry.note().getId();
+        if (entry.written().isDone()) {
+            return;
+        }
+        failures.put(id, String.valueOf(error));
+        pending.remove(id);
+        entry.written().completeExceptionally(new IllegalStateException("Note " + id + " was not written: " + error));
+        discard(entry.note());
+    }
+
+    private void discard(Note note) {
+        try {
+            textStore.discard(note);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete the text file of unwritten note {}", note.getId(), e);
+        }
+    }
+
+    /**
+     * A note accepted for writing; {@code written} completes once its batch was inserted.
+     */
+    public record QueuedNote(String id, CompletableFuture<NoteDetailDto> written) {
+    }
+
+    private record Pending(Note note, String text, CompletableFuture<NoteDetailDto> written) {
+    }
+}
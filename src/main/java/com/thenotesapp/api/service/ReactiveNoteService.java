@@ -0,0 +1,266 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.CursorPageDto;
+import com.thenotesapp.api.dto.NoteDetailDto;
+import com.thenotesapp.api.dto.NoteSummaryDto;
+import com.thenotesapp.api.dto.NoteTextDto;
+import com.thenotesapp.api.dto.PatchNoteDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.TagMatch;
+import com.thenotesapp.api.repository.ReactiveNoteRepository;
+import com.thenotesapp.api.stats.WordStatisticsFilter;
+import com.thenotesapp.api.storage.NoteTextStore;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Non-blocking variant of {@link NoteService} for the reactive profile, with the same results and errors.
+ * <p>
+ * {@link NoteChangedEvent} listeners write to Mongo through the blocking driver, so events are
+ * published on the bounded elastic scheduler instead of the event loop, as are GridFS text uploads and reads.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveNoteService {
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdDate", "id");
+
+    private final ReactiveNoteRepository noteRepository;
+    private final NoteService noteService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NoteCache noteCache;
+    private final NoteTextStore textStore;
+
+    public ReactiveNoteService(ReactiveNoteRepository noteRepository, NoteService noteService,
+                               ApplicationEventPublisher eventPublisher, NoteCache noteCache, NoteTextStore textStore) {
+        this.noteRepository = noteRepository;
+        this.noteService = noteService;
+        this.eventPublisher = eventPublisher;
+        this.noteCache = noteCache;
+        this.textStore = textStore;
+    }
+
+    public Mono<NoteDetailDto> create(CreateNoteDto createDto) {
+        return Mono.fromSupplier(() -> noteService.newNote(createDto))
+                // may upload the text to GridFS
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(noteRepository::save)
+                .flatMap(saved -> publish(NoteChangedEvent.created(saved)).thenReturn(saved))
+                .map(saved -> NoteMapper.toDetail(saved, createDto.getText()));
+    }
+
+    public Mono<Versioned<NoteDetailDto>> update(String id, CreateNoteDto createNoteDto, Collection<Long> expectedVersions) {
+        Note updated = new Note(id, createNoteDto.getTitle(), createNoteDto.getText(), null, createNoteDto.getTags());
+        updated.setWordFrequencies(noteService.getNoteStatistics(createNoteDto.getText()));
+        return encoded(updated)
+                .flatMap(encoded -> noteRepository.findAndUpdateById(id, expectedVersions, textStore.setEncodedText(new Update()
+                        .set("title", encoded.getTitle())
+                        .set("tags", encoded.getTags())
+                        .set("tagMask", encoded.getTagMask())
+                        .set("wordFrequencies", encoded.getWordFrequencies()), encoded)))
+                .switchIfEmpty(discard(updated).then(missingOrModified(id, expectedVersions)))
+                .flatMap(before -> {
+                    updated.setCreatedDate(before.getCreatedDate());
+                    updated.setVersion(NoteService.versionOf(before) + 1);
+                    return publish(NoteChangedEvent.updated(before, updated)).thenReturn(updated);
+                })
+                .map(saved -> Versioned.of(NoteMapper.toDetail(saved, createNoteDto.getText()), saved.getVersion()));
+    }
+
+    public Mono<Versioned<NoteSummaryDto>> patch(String id, PatchNoteDto patch, Collection<Long> expectedVersions) {
+        Update fields = new Update();
+        if (patch.getTitle() != null) {
+            fields.set("title", patch.getTitle());
+        }
+        if (patch.getTags() != null) {
+            fields.set("tags", patch.getTags()).set("tagMask", NoteTag.mask(patch.getTags()));
+        }
+        Note text = null;
+        Mono<Update> update = Mono.just(fields);
+        if (patch.getText() != null) {
+            text = new Note();
+            text.setText(patch.getText());
+            text.setWordFrequencies(noteService.getNoteStatistics(patch.getText()));
+            update = encoded(text).map(encoded -> textStore.setEncodedText(fields, encoded)
+                    .set("wordFrequencies", encoded.getWordFrequencies()));
+        }
+        Note patchedText = text;
+        return update
+                .flatMap(changes -> noteRepository.findAndUpdateById(id, expectedVersions, changes))
+                .switchIfEmpty((patchedText != null ? discard(patchedText) : Mono.<Void>empty())
+                        .then(missingOrModified(id, expectedVersions)))
+                .flatMap(before -> {
+                    Note patched = new Note(id,
+                            patch.getTitle() != null ? patch.getTitle() : before.getTitle(),
+                            null,
+                            before.getCreatedDate(),
+                            patch.getTags() != null ? patch.getTags() : before.getTags());
+                    patched.setWordFrequencies(patchedText != null ? patchedText.getWordFrequencies() : before.getWordFrequencies());
+                    patched.setTextFileId(patchedText != null ? patchedText.getTextFileId() : before.getTextFileId());
+                    long version = NoteService.versionOf(before) + 1;
+                    return publish(NoteChangedEvent.updated(before, patched))
+                            .thenReturn(new Versioned<>(NoteMapper.toSummary(patched), version));
+                });
+    }
+
+    public Mono<Void> deleteNote(String id, Collection<Long> expectedVersions) {
+        return noteRepository.findAndRemoveById(id, expectedVersions)
+                .switchIfEmpty(missingOrModified(id, expectedVersions))
+                .flatMap(deleted -> publish(NoteChangedEvent.deleted(deleted)));
+    }
+
+    public Mono<Long> getVersion(String id) {
+        return cached(NoteCache.Kind.VERSION, id, key -> noteRepository.findVersionById(key)
+                .map(NoteService::versionOf));
+    }
+
+    public Mono<Versioned<NoteSummaryDto>> getById(String id) {
+        return cached(NoteCache.Kind.SUMMARY, id, key -> noteRepository.findSummaryById(key)
+                .map(note -> Versioned.of(NoteMapper.toSummary(note), note.getVersion())));
+    }
+
+    public Mono<Versioned<NoteTextDto>> getTextById(String id) {
+        return cached(NoteCache.Kind.TEXT, id, key -> noteRepository.findTextById(key)
+                .flatMap(note -> read(note).map(text -> Versioned.of(new NoteTextDto(text), note.getVersion()))));
+    }
+
+    /**
+     * The UTF-8 text as a resource that can be written by byte range, see {@link NoteTextStore#resource}.
+     * Reads of a chunked text block, writers must keep them off the event loop.
+     */
+    public Mono<Versioned<Resource>> getTextResourceById(String id) {
+        return noteRepository.findTextById(id)
+                .flatMap(note -> resource(note).map(text -> Versioned.of(text, note.getVersion())));
+    }
+
+    public Mono<Versioned<Map<String, Long>>> getStatisticsById(String id, WordStatisticsFilter filter) {
+        Mono<Versioned<Map<String, Long>>> frequencies = cached(NoteCache.Kind.STATS, id, key ->
+                noteRepository.findWordFrequenciesById(key)
+                        .flatMap(note -> (note.getWordFrequencies() != null
+                                ? Mono.just(note.getWordFrequencies())
+                                // not backfilled yet, fall back to tokenizing the text
+                                : noteRepository.findTextById(key)
+                                        .flatMap(this::read)
+                                        .map(noteService::getNoteStatistics)
+                                        .defaultIfEmpty(Map.of()))
+                                .map(stats -> Versioned.of(stats, note.getVersion()))));
+        return frequencies.map(stats -> new Versioned<>(filter.apply(stats.value()), stats.version()));
+    }
+
+    public Mono<Page<NoteSummaryDto>> listNotes(List<NoteTag> tags, TagMatch match, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdDate"));
+        boolean allTags = tags == null || tags.isEmpty();
+        Flux<Note> notes = allTags
+                ? noteRepository.findSummariesBy(pageable)
+                : noteRepository.findSummariesByTagMask(match.filter(tags), pageable);
+        Mono<Long> total = allTags ? noteRepository.count() : noteRepository.countByTagMask(match.filter(tags));
+
+        return Mono.zip(notes.map(NoteMapper::toSummary).collectList(), total)
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    public Mono<CursorPageDto<NoteSummaryDto>> listNotesAfter(List<NoteTag> tags, TagMatch match, String after, int size) {
+        // one extra note tells whether there is a next page, like a Slice query does
+        Pageable pageable = PageRequest.of(0, size + 1, KEYSET_SORT);
+        NoteCursor cursor;
+        try {
+            cursor = (after == null || after.isBlank()) ? null : NoteCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        boolean allTags = tags == null || tags.isEmpty();
+
+        Flux<Note> notes;
+        if (cursor == null) {
+            notes = allTags
+                    ? noteRepository.findSummariesBy(pageable)
+                    : noteRepository.findSummariesByTagMask(match.filter(tags), pageable);
+        } else {
+            notes = allTags
+                    ? noteRepository.findAllAfter(cursor.createdDate(), cursor.id(), pageable)
+                    : noteRepository.findByTagMaskAfter(match.filter(tags), cursor.createdDate(), cursor.id(), pageable);
+        }
+
+        return notes.collectList().map(fetched -> {
+            List<Note> page = fetched.size() > size ? fetched.subList(0, size) : fetched;
+            String next = null;
+            if (fetched.size() > size && !page.isEmpty()) {
+                Note last = page.get(page.size() - 1);
+                next = new NoteCursor(last.getCreatedDate(), new ObjectId(last.getId())).encode();
+            }
+            List<NoteSummaryDto> content = page.stream()
+                    .map(NoteMapper::toSummary)
+                    .toList();
+            return new CursorPageDto<>(content, content.size(), next);
+        });
+    }
+
+    private <T> Mono<T> cached(NoteCache.Kind kind, String id, Function<String, Mono<T>> loader) {
+        return Mono.defer(() -> {
+            Mono<T> hit = Mono.justOrEmpty(noteCache.<T>getIfPresent(kind, id));
+            long epoch = noteCache.epochOf(id);
+            return hit.switchIfEmpty(Mono.defer(() -> loader.apply(id)
+                    .doOnNext(value -> noteCache.putIfUnchanged(kind, id, epoch, value))));
+        });
+    }
+
+    private <T> Mono<T> missingOrModified(String id, Collection<Long> expectedVersions) {
+        if (expectedVersions == null) {
+            return Mono.error(() -> new NoSuchElementException("Note not found with id: " + id));
+        }
+        return noteRepository.existsById(id).flatMap(exists -> Mono.error(exists
+                ? new OptimisticLockingFailureException("Note " + id + " is no longer at version " + expectedVersions)
+                : new NoSuchElementException("Note not found with id: " + id)));
+    }
+
+    // GridFS uploads and downloads block
+    private Mono<Note> encoded(Note note) {
+        return Mono.fromCallable(() -> {
+            textStore.encode(note);
+            return note;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Void> discard(Note note) {
+        return Mono.fromRunnable(() -> textStore.discard(note))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    // a note without text reads as empty
+    private Mono<String> read(Note note) {
+        Mono<String> text = Mono.fromCallable(() -> textStore.read(note)).defaultIfEmpty("");
+        return note.getTextFileId() == null ? text : text.subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Resource> resource(Note note) {
+        Mono<Resource> resource = Mono.fromCallable(() -> textStore.resource(note));
+        return note.getTextFileId() == null ? resource : resource.subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Void> publish(NoteChangedEvent event) {
+        return Mono.fromRunnable(() -> eventPublisher.publishEvent(event))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
@@ -0,0 +1,115 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Number of notes per {@link NoteTag}, kept in memory for badge counts next to list views.
+ * <p>
+ * The counters are seeded by one aggregation at startup and follow {@link NoteChangedEvent}s from
+ * then on, adding and subtracting only the tags that changed. A periodic reconciliation corrects any
+ * drift, e.g. from writes of another instance or from changes made directly in Mongo.
+ */
+@Slf4j
+@Service
+public class TagCountService implements ApplicationRunner {
+
+    // a note counts once per tag even if the tag is listed twice
+    private static final Aggregation COUNT_BY_TAG = Aggregation.newAggregation(
+            Aggregation.stage("{ $project: { tags: { $setUnion: ['$tags', []] } } }"),
+            Aggregation.stage("{ $unwind: '$tags' }"),
+            Aggregation.stage("{ $group: { _id: '$tags', count: { $sum: 1 } } }"));
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<NoteTag, LongAdder> counts = new EnumMap<>(NoteTag.class);
+
+    public TagCountService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        for (NoteTag tag : NoteTag.values()) {
+            counts.put(tag, new LongAdder());
+        }
+    }
+
+    /**
+     * Notes per tag, every tag included.
+     */
+    public Map<NoteTag, Long> counts() {
+        Map<NoteTag, Long> snapshot = new EnumMap<>(NoteTag.class);
+        counts.forEach((tag, count) -> snapshot.put(tag, count.sum()));
+        return snapshot;
+    }
+
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        Set<NoteTag> before = tagsOf(event.before());
+        Set<NoteTag> after = tagsOf(event.after());
+        for (NoteTag tag : before) {
+            if (!after.contains(tag)) {
+                counts.get(tag).decrement();
+            }
+        }
+        for (NoteTag tag : after) {
+            if (!before.contains(tag)) {
+                counts.get(tag).increment();
+            }
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reconcile();
+    }
+
+    /**
+     * Replaces the counters with the counts in Mongo. Changes that happen while the aggregation runs
+     * keep being applied; the few it may count twice or miss are corrected by the next reconciliation.
+     */
+    @Scheduled(fixedDelayString = "${notes.tags.counts.reconcile-interval:5m}",
+            initialDelayString = "${notes.tags.counts.reconcile-interval:5m}")
+    public void reconcile() {
+        Map<NoteTag, Long> before = counts();
+        Map<NoteTag, Long> actual = new EnumMap<>(NoteTag.class);
+        try {
+            for (Document count : mongoTemplate.aggregate(COUNT_BY_TAG, Note.class, Document.class)) {
+                actual.put(NoteTag.valueOf(count.getString("_id")), count.get("count", Number.class).longValue());
+            }
+        } catch (DataAccessException e) {
+            log.error("Tag count reconciliation failed, keeping the current counts", e);
+            return;
+        }
+        for (NoteTag tag : NoteTag.values()) {
+            long drift = actual.getOrDefault(tag, 0L) - before.get(tag);
+            if (drift != 0) {
+                // a delta rather than a reset keeps the changes applied meanwhile
+                counts.get(tag).add(drift);
+                log.info("Corrected the {} tag count by {}", tag, drift);
+            }
+        }
+    }
+
+    private static Set<NoteTag> tagsOf(Note note) {
+        List<NoteTag> tags = note == null ? null : note.getTags();
+        if (tags == null || tags.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return EnumSet.copyOf(tags);
+    }
+}
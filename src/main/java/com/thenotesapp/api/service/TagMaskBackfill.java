@@ -0,0 +1,86 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Populates {@code tagMask} for notes written before it was stored; tag filters do not match them until then.
+ * A one-off like {@link WordStatisticsBackfill}, enabled for the deployment that introduces masks rather
+ * than searching for notes without one on every startup.
+ */
+@Slf4j
+@Component
+public class TagMaskBackfill implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public TagMaskBackfill(MongoTemplate mongoTemplate,
+                           @Value("${notes.tags.backfill.enabled:false}") boolean enabled,
+                           @Value("${notes.tags.backfill.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long updated = backfill();
+            if (updated > 0) {
+                log.info("Backfilled tag masks of {} notes", updated);
+            }
+        } catch (DataAccessException e) {
+            log.error("Tag mask backfill failed", e);
+        }
+    }
+
+    public long backfill() {
+        Query query = new Query(Criteria.where("tagMask").exists(false));
+        query.fields().include("tags");
+        query.cursorBatchSize(batchSize);
+
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<Note> notes = mongoTemplate.stream(query, Note.class)) {
+            Iterator<Note> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                Note note = iterator.next();
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+                }
+                // a note written meanwhile already has its mask and is not overwritten with one of its old tags
+                bulk.updateOne(Query.query(Criteria.where("_id").is(note.getId()).and("tagMask").exists(false)),
+                        new Update().set("tagMask", NoteTag.mask(note.getTags())));
+                if (++pending == batchSize) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            updated += bulk.execute().getModifiedCount();
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,14 @@
+package com.thenotesapp.api.service;
+
+/**
+ * A read of a note together with the version of the document it was read from.
+ */
+public record Versioned<T>(T value, long version) {
+
+    /**
+     * @param version the stored version, null for documents written before versioning
+     */
+    public static <T> Versioned<T> of(T value, Long version) {
+        return new Versioned<>(value, version == null ? 0 : version);
+    }
+}
@@ -0,0 +1,84 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.model.Note;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Populates {@code wordFrequencies} for notes written before statistics were computed on write.
+ */
+@Slf4j
+@Component
+public class WordStatisticsBackfill implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+    private final NoteService noteService;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public WordStatisticsBackfill(MongoTemplate mongoTemplate,
+                                  NoteService noteService,
+                                  @Value("${notes.stats.backfill.enabled:false}") boolean enabled,
+                                  @Value("${notes.stats.backfill.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.noteService = noteService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long updated = backfill();
+            log.info("Backfilled word statistics of {} notes", updated);
+        } catch (DataAccessException e) {
+            log.error("Word statistics backfill failed", e);
+        }
+    }
+
+    public long backfill() {
+        Query query = new Query(Criteria.where("wordFrequencies").exists(false));
+        query.fields().include("text");
+        query.cursorBatchSize(batchSize);
+
+        long updated = 0;
+        BulkOperations bulk = null;
+        int pending = 0;
+        try (Stream<Note> notes = mongoTemplate.stream(query, Note.class)) {
+            Iterator<Note> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                Note note = iterator.next();
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+                }
+                // a note written meanwhile already has its statistics and is not overwritten with ones of its old text
+                bulk.updateOne(Query.query(Criteria.where("_id").is(note.getId()).and("wordFrequencies").exists(false)),
+                        new Update().set("wordFrequencies", noteService.getNoteStatistics(note.getText())));
+                if (++pending == batchSize) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            updated += bulk.execute().getModifiedCount();
+        }
+        return updated;
+    }
+}
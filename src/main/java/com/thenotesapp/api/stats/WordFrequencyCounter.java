@@ -0,0 +1,189 @@
+package com.thenotesapp.api.stats;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single-pass word counter for note texts.
+ * <p>
+ * Produces the same words as lower-casing the text, dropping every character outside
+ * {@code [a-zа-я0-9]} and splitting on {@code \s+}, but scans the text once by code point and counts
+ * into an open-addressing word to int table instead of building intermediate strings.
+ * Lower-casing is per code point, which equals {@link String#toLowerCase()} for every locale except
+ * the Turkic and Lithuanian ones.
+ * <p>
+ * Instances are not thread safe; {@link #count(CharSequence)} reuses one counter per thread.
+ */
+public final class WordFrequencyCounter {
+
+    private static final int INITIAL_CAPACITY = 256;
+    // tables grown past this by a huge note are dropped instead of being kept per thread
+    private static final int MAX_RETAINED_CAPACITY = 1 << 16;
+    private static final ThreadLocal<WordFrequencyCounter> PER_THREAD =
+            ThreadLocal.withInitial(WordFrequencyCounter::new);
+
+    private String[] keys;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+
+    private char[] word = new char[32];
+    private int wordLength;
+    private int wordHash;
+
+    public WordFrequencyCounter() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Counts the words of {@code text}, most frequent first.
+     */
+    public static Map<String, Long> count(CharSequence text) {
+        WordFrequencyCounter counter = PER_THREAD.get();
+        counter.reset();
+        counter.accept(text);
+        return counter.toSortedMap();
+    }
+
+    public void accept(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i++);
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i < length && Character.isLowSurrogate(text.charAt(i))) {
+                codePoint = Character.toCodePoint(c, text.charAt(i++));
+            }
+            int lower = Character.toLowerCase(codePoint);
+            if (isWordChar(lower)) {
+                append((char) lower);
+            } else if (isSeparator(codePoint)) {
+                endWord();
+            }
+        }
+        endWord();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void reset() {
+        if (keys.length > MAX_RETAINED_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        } else if (size > 0) {
+            Arrays.fill(keys, null);
+            Arrays.fill(counts, 0);
+        }
+        size = 0;
+        wordLength = 0;
+        wordHash = 0;
+    }
+
+    public Map<String, Long> toSortedMap() {
+        // count descending packed into the high bits, so a primitive sort orders the slots
+        long[] order = new long[size];
+        int n = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != null) {
+                order[n++] = ((long) (Integer.MAX_VALUE - counts[slot]) << 32) | slot;
+            }
+        }
+        Arrays.sort(order);
+
+        Map<String, Long> result = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+        for (long packed : order) {
+            int slot = (int) packed;
+            result.put(keys[slot], (long) counts[slot]);
+        }
+        return result;
+    }
+
+    static boolean isWordChar(int codePoint) {
+        return (codePoint >= 'a' && codePoint <= 'z')
+                || (codePoint >= '0' && codePoint <= '9')
+                || (codePoint >= 'а' && codePoint <= 'я');
+    }
+
+    // exactly the regex \s, which is narrower than Character.isWhitespace
+    static boolean isSeparator(int codePoint) {
+        return codePoint == ' ' || codePoint == '\t' || codePoint == '\n'
+                || codePoint == 0x0B || codePoint == '\f' || codePoint == '\r';
+    }
+
+    private void append(char c) {
+        if (wordLength == word.length) {
+            word = Arrays.copyOf(word, wordLength * 2);
+        }
+        word[wordLength++] = c;
+        wordHash = 31 * wordHash + c;
+    }
+
+    private void endWord() {
+        if (wordLength > 0) {
+            increment();
+            wordLength = 0;
+            wordHash = 0;
+        }
+    }
+
+    private void increment() {
+        int mask = keys.length - 1;
+        int slot = spread(wordHash) & mask;
+        while (keys[slot] != null) {
+            if (hashes[slot] == wordHash && matchesWord(keys[slot])) {
+                counts[slot]++;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = new String(word, 0, wordLength);
+        hashes[slot] = wordHash;
+        counts[slot] = 1;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    private boolean matchesWord(String key) {
+        if (key.length() != wordLength) {
+            return false;
+        }
+        for (int i = 0; i < wordLength; i++) {
+            if (key.charAt(i) != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = spread(oldHashes[i]) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B1;
+    }
+}
@@ -0,0 +1,85 @@
+package com.thenotesapp.api.stats;
+
+import java.util.*;
+
+/**
+ * Restricts a word frequency map to the {@code limit} most frequent words that occur at least
+ * {@code minCount} times and are not stopwords.
+ * <p>
+ * Selection keeps a min-heap of at most {@code limit} entries, so the cost is O(n log limit)
+ * rather than a sort of the whole vocabulary.
+ */
+public record WordStatisticsFilter(Integer limit, long minCount, Set<String> stopwords) {
+
+    public static final WordStatisticsFilter NONE = new WordStatisticsFilter(null, 1, Set.of());
+
+    private static final Comparator<Map.Entry<String, Long>> BY_COUNT = Map.Entry.comparingByValue();
+
+    public WordStatisticsFilter {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        stopwords = stopwords == null ? Set.of() : Set.copyOf(stopwords);
+    }
+
+    public static WordStatisticsFilter of(Integer limit, Long minCount, Collection<String> stopwords) {
+        Set<String> normalized = new HashSet<>();
+        if (stopwords != null) {
+            for (String stopword : stopwords) {
+                normalized.add(stopword.toLowerCase(Locale.ROOT));
+            }
+        }
+        return new WordStatisticsFilter(limit, minCount == null ? 1 : minCount, normalized);
+    }
+
+    public boolean isNone() {
+        return limit == null && minCount <= 1 && stopwords.isEmpty();
+    }
+
+    /**
+     * @param frequencies word counts, most frequent first
+     * @return the selected words, most frequent first
+     */
+    public Map<String, Long> apply(Map<String, Long> frequencies) {
+        if (isNone()) {
+            return frequencies;
+        }
+        if (limit == null) {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> entry : frequencies.entrySet()) {
+                if (accepts(entry)) {
+                    result.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return result;
+        }
+
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, BY_COUNT);
+        for (Map.Entry<String, Long> entry : frequencies.entrySet()) {
+            if (!accepts(entry)) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Map.Entry<String, Long>[] top = new Map.Entry[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = heap.poll();
+        }
+        Map<String, Long> result = new LinkedHashMap<>((int) (top.length / 0.75f) + 1);
+        for (Map.Entry<String, Long> entry : top) {
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private boolean accepts(Map.Entry<String, Long> entry) {
+        return entry.getValue() >= minCount && !stopwords.contains(entry.getKey());
+    }
+}
@@ -0,0 +1,44 @@
+package com.thenotesapp.api.storage;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A GridFS file that, unlike {@link org.springframework.data.mongodb.gridfs.GridFsResource}, opens a new
+ * download stream on every {@link #getInputStream()}, so multi-range requests can read it once per range.
+ * Skipping to a range start only fetches the chunks from there on.
+ */
+final class GridFsTextResource extends AbstractResource {
+
+    private final GridFsOperations gridFs;
+    private final GridFSFile file;
+
+    GridFsTextResource(GridFsOperations gridFs, GridFSFile file) {
+        this.gridFs = gridFs;
+        this.file = file;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return gridFs.getResource(file).getInputStream();
+    }
+
+    @Override
+    public long contentLength() {
+        return file.getLength();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public String getDescription() {
+        return "GridFS file [" + file.getObjectId() + "]";
+    }
+}
@@ -0,0 +1,112 @@
+package com.thenotesapp.api.storage;
+
+import com.thenotesapp.api.model.Note;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Stores note texts of at least {@code notes.text.compression.threshold} characters deflated in
+ * {@code compressedText} instead of {@code text}, when {@code notes.text.compression.enabled} is set.
+ * <p>
+ * Only the text readers decode; summaries, listings and statistics never project either field.
+ * Compressed texts stay readable when compression is switched off again.
+ */
+@Component
+public class NoteTextCodec {
+
+    private final boolean enabled;
+    private final int threshold;
+    private final DistributionSummary ratio;
+    private final Timer encodeTimer;
+    private final Timer decodeTimer;
+
+    public NoteTextCodec(MeterRegistry meterRegistry,
+                         @Value("${notes.text.compression.enabled:false}") boolean enabled,
+                         @Value("${notes.text.compression.threshold:16384}") int threshold) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.ratio = DistributionSummary.builder("notes.text.compression.ratio")
+                .description("Uncompressed to compressed size of texts stored compressed")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("notes.text.compression.encode")
+                .description("Time spent deflating note texts on write")
+                .register(meterRegistry);
+        this.decodeTimer = Timer.builder("notes.text.compression.decode")
+                .description("Time spent inflating note texts on read")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Moves the text of a note about to be inserted into {@code compressedText} if it qualifies.
+     */
+    public void encode(Note note) {
+        byte[] compressed = compress(note.getText());
+        if (compressed != null) {
+            note.setText(null);
+            note.setCompressedText(compressed);
+        }
+    }
+
+    /**
+     * Adds setting the text of an already {@link #encode encoded} note to an update, clearing the other field.
+     */
+    public Update setEncodedText(Update update, Note note) {
+        if (note.getCompressedText() != null) {
+            return update.set("compressedText", note.getCompressedText()).unset("text");
+        }
+        return update.set("text", note.getText()).unset("compressedText");
+    }
+
+    /**
+     * The text of a note read with both {@code text} and {@code compressedText} projected.
+     */
+    public String decode(Note note) {
+        if (note.getCompressedText() == null) {
+            return note.getText();
+        }
+        return decodeTimer.record(() -> inflate(note.getCompressedText()));
+    }
+
+    private byte[] compress(String text) {
+        if (!enabled || text == null || text.length() < threshold) {
+            return null;
+        }
+        long start = System.nanoTime();
+        byte[] plain = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4);
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(plain);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] compressed = out.toByteArray();
+        encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (compressed.length >= plain.length) {
+            // incompressible, the plain text is cheaper to read
+            return null;
+        }
+        ratio.record((double) plain.length / compressed.length);
+        return compressed;
+    }
+
+    private static String inflate(byte[] compressed) {
+        try (InflaterInputStream inflater = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(inflater.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.thenotesapp.api.storage;
+
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.service.NoteChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Deletes the GridFS text files of notes that were deleted or whose text was replaced.
+ * <p>
+ * A file is not deleted right away: a request that resolved the old {@code textFileId} just before the
+ * change may still be streaming it. The file is marked with {@code metadata.retiredAt} instead and a
+ * periodic sweep deletes the files retired longer than {@code notes.text.chunking.retired-grace} ago.
+ * The mark is stored with the file, so files retired before a restart are still swept.
+ */
+@Slf4j
+@Component
+public class NoteTextFileSweeper {
+
+    private static final String RETIRED_AT = "metadata.retiredAt";
+
+    private final MongoTemplate mongoTemplate;
+    private final GridFsOperations gridFs;
+    private final String filesCollection;
+    private final Duration grace;
+
+    public NoteTextFileSweeper(MongoTemplate mongoTemplate,
+                               GridFsOperations gridFs,
+                               @Value("${spring.data.mongodb.gridfs.bucket:fs}") String bucket,
+                               @Value("${notes.text.chunking.retired-grace:10m}") Duration grace) {
+        this.mongoTemplate = mongoTemplate;
+        this.gridFs = gridFs;
+        this.filesCollection = bucket + ".files";
+        this.grace = grace;
+    }
+
+    @EventListener
+    public void onNoteChanged(NoteChangedEvent event) {
+        Note before = event.before();
+        if (before == null || before.getTextFileId() == null) {
+            return;
+        }
+        Note after = event.after();
+        if (after == null || !Objects.equals(before.getTextFileId(), after.getTextFileId())) {
+            retire(before.getTextFileId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notes.text.chunking.sweep-interval:1m}",
+            initialDelayString = "${notes.text.chunking.sweep-interval:1m}")
+    public void sweep() {
+        Date retiredBefore = Date.from(Instant.now().minus(grace));
+        try {
+            gridFs.delete(Query.query(Criteria.where(RETIRED_AT).lt(retiredBefore)));
+        } catch (DataAccessException e) {
+            log.warn("Could not delete retired text files, retrying with the next sweep", e);
+        }
+    }
+
+    private void retire(ObjectId fileId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(fileId)),
+                new Update().set(RETIRED_AT, new Date()), filesCollection);
+    }
+}
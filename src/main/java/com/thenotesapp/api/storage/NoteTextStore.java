@@ -0,0 +1,122 @@
+package com.thenotesapp.api.storage;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.thenotesapp.api.model.Note;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decides where a note text lives and reads it back from there: inline in {@code text}, deflated in
+ * {@code compressedText} (see {@link NoteTextCodec}) or, for texts of at least
+ * {@code notes.text.chunking.threshold} characters when {@code notes.text.chunking.enabled} is set,
+ * as a GridFS file referenced by {@code textFileId}. GridFS splits the file into 255 KiB chunks, so
+ * texts beyond the 16 MB document limit can be stored and read back one range at a time.
+ * <p>
+ * Files replaced or orphaned by a {@link com.thenotesapp.api.service.NoteChangedEvent} are deleted
+ * by the {@link NoteTextFileSweeper} once readers are done with them.
+ */
+@Component
+public class NoteTextStore {
+
+    private static final String CONTENT_TYPE = "text/plain;charset=UTF-8";
+
+    private final GridFsOperations gridFs;
+    private final NoteTextCodec codec;
+    private final boolean chunkingEnabled;
+    private final int chunkingThreshold;
+
+    public NoteTextStore(GridFsOperations gridFs,
+                         NoteTextCodec codec,
+                         @Value("${notes.text.chunking.enabled:false}") boolean chunkingEnabled,
+                         @Value("${notes.text.chunking.threshold:1048576}") int chunkingThreshold) {
+        this.gridFs = gridFs;
+        this.codec = codec;
+        this.chunkingEnabled = chunkingEnabled;
+        this.chunkingThreshold = chunkingThreshold;
+    }
+
+    /**
+     * Moves the text of a note about to be written out of {@code text} if it qualifies. Uploads the
+     * GridFS file right away; {@link #discard} it if the note is not written after all.
+     */
+    public void encode(Note note) {
+        String text = note.getText();
+        if (!chunkingEnabled || text == null || text.length() < chunkingThreshold) {
+            codec.encode(note);
+            return;
+        }
+        InputStream content = new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+        note.setTextFileId(gridFs.store(content, "note-text", CONTENT_TYPE));
+        note.setText(null);
+    }
+
+    /**
+     * Adds setting the text of an {@link #encode encoded} note to an update, clearing the other text fields.
+     */
+    public Update setEncodedText(Update update, Note note) {
+        if (note.getTextFileId() != null) {
+            return update.set("textFileId", note.getTextFileId()).unset("text").unset("compressedText");
+        }
+        return codec.setEncodedText(update, note).unset("textFileId");
+    }
+
+    /**
+     * Deletes the GridFS file uploaded by {@link #encode} for a note that was not written.
+     */
+    public void discard(Note note) {
+        if (note.getTextFileId() != null) {
+            delete(note.getTextFileId());
+        }
+    }
+
+    /**
+     * The whole text of a note read with {@code text}, {@code compressedText} and {@code textFileId} projected.
+     */
+    public String read(Note note) {
+        if (note.getTextFileId() == null) {
+            return codec.decode(note);
+        }
+        try (InputStream content = resource(note).getInputStream()) {
+            return new String(content.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The UTF-8 text of a note as a resource that can be read repeatedly and by byte range. Chunked texts
+     * are streamed from GridFS without being loaded; the others are already in memory.
+     */
+    public Resource resource(Note note) {
+        if (note.getTextFileId() == null) {
+            String text = codec.decode(note);
+            return new ByteArrayResource(text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8));
+        }
+        GridFSFile file = gridFs.findOne(byId(note.getTextFileId()));
+        if (file == null) {
+            throw new IllegalStateException("Text file " + note.getTextFileId() + " of note " + note.getId() + " is missing");
+        }
+        return new GridFsTextResource(gridFs, file);
+    }
+
+    private void delete(ObjectId fileId) {
+        gridFs.delete(byId(fileId));
+    }
+
+    private static Query byId(ObjectId fileId) {
+        return Query.query(Criteria.where("_id").is(fileId));
+    }
+}
@@ -0,0 +1,30 @@
+package com.thenotesapp.api.config;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoDocumentsCommandListenerTest {
+
+    @Test
+    @DisplayName("Should count cursor batches, written documents and findAndModify results")
+    void documentsOf_ShouldReadTheCommandReply() {
+        assertThat(MongoDocumentsCommandListener.documentsOf("find",
+                BsonDocument.parse("{ cursor: { id: 0, firstBatch: [ {}, {}, {} ] }, ok: 1 }"))).isEqualTo(3);
+        assertThat(MongoDocumentsCommandListener.documentsOf("getMore",
+                BsonDocument.parse("{ cursor: { id: 7, nextBatch: [ {} ] }, ok: 1 }"))).isEqualTo(1);
+        assertThat(MongoDocumentsCommandListener.documentsOf("insert",
+                BsonDocument.parse("{ n: 500, ok: 1 }"))).isEqualTo(500);
+        assertThat(MongoDocumentsCommandListener.documentsOf("findAndModify",
+                BsonDocument.parse("{ lastErrorObject: { n: 0 }, value: null, ok: 1 }"))).isZero();
+    }
+
+    @Test
+    @DisplayName("Should skip commands without a document count")
+    void documentsOf_ShouldSkipOtherCommands() {
+        assertThat(MongoDocumentsCommandListener.documentsOf("ping", BsonDocument.parse("{ ok: 1 }"))).isNegative();
+        assertThat(MongoDocumentsCommandListener.documentsOf("count", BsonDocument.parse("{ n: 42, ok: 1 }"))).isNegative();
+    }
+}
@@ -0,0 +1,71 @@
+package com.thenotesapp.api.config;
+
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.WordStat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import(NoteIndexInitializer.class)
+@Testcontainers
+class NoteIndexInitializerTest {
+
+    @Container
+    static final MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.5");
+
+    @DynamicPropertySource
+    static void setMongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private NoteIndexInitializer initializer;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    @DisplayName("Should create declared indexes on startup")
+    void run_ShouldCreateDeclaredIndexes() {
+        assertThat(mongoTemplate.indexOps(Note.class).getIndexInfo())
+                .extracting(IndexInfo::getName)
+                .contains("createdDate_id_tagMask", "tagMask_createdDate_id");
+    }
+
+    @Test
+    @DisplayName("Should create indexes of every document class")
+    void run_ShouldCreateWordStatIndexes() {
+        assertThat(mongoTemplate.indexOps(WordStat.class).getIndexInfo())
+                .extracting(IndexInfo::getName)
+                .contains("scope_count");
+    }
+
+    @Test
+    @DisplayName("Should rebuild a missing index and report undeclared ones")
+    void reconcile_ShouldReportDrift() {
+        mongoTemplate.indexOps(Note.class).dropIndex("createdDate_id_tagMask");
+        mongoTemplate.indexOps(Note.class).createIndex(new Index("title", Sort.Direction.ASC).named("title_adhoc"));
+
+        NoteIndexInitializer.Report report = initializer.reconcile(Note.class);
+
+        assertThat(report.created()).containsExactly("createdDate_id_tagMask");
+        assertThat(report.drifted()).isEmpty();
+        assertThat(report.undeclared()).containsExactly("title_adhoc");
+
+        mongoTemplate.indexOps(Note.class).dropIndex("title_adhoc");
+    }
+}
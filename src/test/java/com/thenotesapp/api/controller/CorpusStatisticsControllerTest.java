@@ -0,0 +1,53 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.service.CorpusStatisticsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CorpusStatisticsController.class)
+class CorpusStatisticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CorpusStatisticsService corpusStatisticsService;
+
+    @Test
+    @DisplayName("GET /api/notes/stats - should return top words of all notes")
+    void getCorpusStatistics_ShouldReturnTopWords() throws Exception {
+        given(corpusStatisticsService.topWords(5)).willReturn(Map.of("alpha", 3L));
+
+        mockMvc.perform(get("/api/notes/stats").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alpha").value(3));
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/tags/{tag}/stats - should return top words of a tag")
+    void getTagStatistics_ShouldReturnTopWords() throws Exception {
+        given(corpusStatisticsService.topWords(NoteTag.IMPORTANT, 20)).willReturn(Map.of("beta", 1L));
+
+        mockMvc.perform(get("/api/notes/tags/IMPORTANT/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.beta").value(1));
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/stats - should reject an out of range limit")
+    void getCorpusStatistics_ShouldRejectInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/notes/stats").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -2,6 +2,7 @@ package com.thenotesapp.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.NoteDetailDto;
 import com.thenotesapp.api.model.Note;
 import com.thenotesapp.api.model.NoteTag;
 import com.thenotesapp.api.repository.NoteRepository;
@@ -9,6 +10,8 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -24,7 +27,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {"notes.text.chunking.enabled=true", "notes.text.chunking.threshold=100000"})
 @AutoConfigureMockMvc
 @Testcontainers
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -47,6 +50,9 @@ class NoteControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private GridFsOperations gridFs;
+
     private static String noteId;
 
     @BeforeEach
@@ -145,4 +151,169 @@ class NoteControllerIntegrationTest {
 
         assertThat(noteRepository.existsById(note.getId())).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(8)
+    void bulk_ShouldReportPerItemResults() throws Exception {
+        Note existing = noteRepository.save(new Note(null, "Existing", "old text", LocalDateTime.now(), List.of()));
+        Note doomed = noteRepository.save(new Note(null, "Doomed", "bye", LocalDateTime.now(), List.of()));
+
+        String ndjson = String.join("\n",
+                "{\"op\":\"CREATE\",\"note\":{\"title\":\"Bulk 1\",\"text\":\"first\",\"tags\":[\"BUSINESS\"]}}",
+                "{\"op\":\"CREATE\",\"note\":{\"title\":\"\",\"text\":\"no title\"}}",
+                "{\"op\":\"UPDATE\",\"id\":\"" + existing.getId() + "\",\"note\":{\"title\":\"Renamed\",\"text\":\"new text\"}}",
+                "{\"op\":\"DELETE\",\"id\":\"" + doomed.getId() + "\"}",
+                "{\"op\":\"DELETE\",\"id\":\"65f000000000000000000000\"}");
+
+        mockMvc.perform(post("/api/notes/_bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(3))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.items[0].status").value(201))
+                .andExpect(jsonPath("$.items[1].status").value(400))
+                .andExpect(jsonPath("$.items[2].status").value(200))
+                .andExpect(jsonPath("$.items[3].status").value(204))
+                .andExpect(jsonPath("$.items[4].status").value(404));
+
+        assertThat(noteRepository.findById(existing.getId()).orElseThrow().getTitle()).isEqualTo("Renamed");
+        assertThat(noteRepository.existsById(doomed.getId())).isFalse();
+        assertThat(noteRepository.findAll()).extracting(Note::getTitle).containsExactlyInAnyOrder("Renamed", "Bulk 1");
+    }
+
+    @Test
+    @Order(9)
+    void bulk_ShouldAcceptJsonArray() throws Exception {
+        String json = "[{\"op\":\"CREATE\",\"note\":{\"title\":\"A\",\"text\":\"a\"}},"
+                + "{\"op\":\"CREATE\",\"note\":{\"title\":\"B\",\"text\":\"b\"}}]";
+
+        mockMvc.perform(post("/api/notes/_bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(2));
+
+        assertThat(noteRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @Order(10)
+    void export_ShouldStreamMatchingNotesAsNdjson() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        noteRepository.save(new Note(null, "Old", "old business", now.minusDays(2), List.of(NoteTag.BUSINESS)));
+        noteRepository.save(new Note(null, "New", "new business", now, List.of(NoteTag.BUSINESS)));
+        noteRepository.save(new Note(null, "Private", "personal", now, List.of(NoteTag.PERSONAL)));
+
+        String body = mockMvc.perform(get("/api/notes/_export")
+                        .param("tags", "BUSINESS")
+                        .param("from", now.minusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(1);
+        NoteDetailDto exported = objectMapper.readValue(lines.get(0), NoteDetailDto.class);
+        assertThat(exported.getTitle()).isEqualTo("New");
+        assertThat(exported.getText()).isEqualTo("new business");
+    }
+
+    @Test
+    @Order(11)
+    void import_ShouldInsertValidRecordsAndReportTheRest() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            ndjson.append("{\"title\":\"Imported ").append(i).append("\",\"text\":\"text ").append(i).append("\"}\n");
+        }
+        ndjson.append("{\"title\":\" \",\"text\":\"blank title\"}\n");
+        ndjson.append("{\"title\":\"Bad tag\",\"text\":\"x\",\"tags\":[\"NOPE\"]}\n");
+
+        mockMvc.perform(post("/api/notes/_import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2502))
+                .andExpect(jsonPath("$.imported").value(2500))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.batches").value(3))
+                .andExpect(jsonPath("$.errors[0].record").value(2500))
+                .andExpect(jsonPath("$.errors[1].record").value(2501));
+
+        assertThat(noteRepository.count()).isEqualTo(2500);
+    }
+
+    @Test
+    @Order(12)
+    void patch_ShouldChangeTagsWithoutTouchingText() throws Exception {
+        Note saved = noteRepository.save(new Note(null, "Patched", "keep this text", LocalDateTime.now(), List.of()));
+
+        mockMvc.perform(patch("/api/notes/" + saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\":[\"IMPORTANT\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Patched"));
+
+        Note patched = noteRepository.findById(saved.getId()).orElseThrow();
+        assertThat(patched.getTags()).containsExactly(NoteTag.IMPORTANT);
+        assertThat(patched.getText()).isEqualTo("keep this text");
+
+        mockMvc.perform(patch("/api/notes/65f000000000000000000000")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\":[]}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Order(13)
+    void conditionalRequests_ShouldUseNoteVersionAsETag() throws Exception {
+        Note saved = noteRepository.save(new Note(null, "Versioned", "v0", LocalDateTime.now(), List.of()));
+        String url = "/api/notes/" + saved.getId();
+
+        mockMvc.perform(get(url + "/text"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+        mockMvc.perform(get(url + "/text").header("If-None-Match", "\"0\""))
+                .andExpect(status().isNotModified());
+
+        String update = objectMapper.writeValueAsString(new CreateNoteDto("Versioned", "v1", List.of()));
+        mockMvc.perform(put(url).header("If-Match", "\"0\"").contentType(MediaType.APPLICATION_JSON).content(update))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+        mockMvc.perform(put(url).header("If-Match", "\"0\"").contentType(MediaType.APPLICATION_JSON).content(update))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get(url + "/text").header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.text").value("v1"));
+
+        mockMvc.perform(delete(url).header("If-Match", "\"1\""))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @Order(14)
+    void largeText_ShouldBeStoredInGridFsAndServedByRange() throws Exception {
+        String text = "0123456789".repeat(20_000);
+        String body = objectMapper.writeValueAsString(new CreateNoteDto("Large", text, List.of()));
+        var created = mockMvc.perform(post("/api/notes").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asText();
+
+        Note stored = noteRepository.findById(id).orElseThrow();
+        assertThat(stored.getText()).isNull();
+        assertThat(stored.getTextFileId()).isNotNull();
+
+        mockMvc.perform(get("/api/notes/" + id + "/text").header("Range", "bytes=100005-100009"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 100005-100009/200000"))
+                .andExpect(content().string("56789"));
+        mockMvc.perform(get("/api/notes/" + id + "/text"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.text").value(text));
+
+        mockMvc.perform(delete("/api/notes/" + id))
+                .andExpect(status().isNoContent());
+        assertThat(gridFs.find(new Query()).first()).isNull();
+    }
+}
@@ -3,20 +3,32 @@ package com.thenotesapp.api.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thenotesapp.api.dto.*;
 import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.TagMatch;
+import com.thenotesapp.api.service.NoteSearchService;
 import com.thenotesapp.api.service.NoteService;
+import com.thenotesapp.api.service.NoteWriteBehindService;
+import com.thenotesapp.api.service.Versioned;
+import com.thenotesapp.api.stats.WordStatisticsFilter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +47,12 @@ class NoteControllerTest {
     @MockBean
     private NoteService noteService;
 
+    @MockBean
+    private NoteSearchService noteSearchService;
+
+    @MockBean
+    private NoteWriteBehindService noteWriteBehindService;
+
     @Test
     @DisplayName("POST /api/notes - should create a note")
     void createNote_ShouldReturnCreatedNote() throws Exception {
@@ -54,6 +72,61 @@ class NoteControllerTest {
                 .andExpect(jsonPath("$.text").value("Some content"));
     }
 
+    @Test
+    @DisplayName("POST /api/notes - should accept a queued note with its status URL")
+    void createNote_ShouldAcceptQueuedNote() throws Exception {
+        CreateNoteDto request = new CreateNoteDto("Test title", "Some content", List.of(NoteTag.IMPORTANT));
+
+        given(noteWriteBehindService.isEnabled()).willReturn(true);
+        given(noteWriteBehindService.enqueue(any(CreateNoteDto.class)))
+                .willReturn(new NoteWriteBehindService.QueuedNote("1", new CompletableFuture<>()));
+
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/notes/1/status"))
+                .andExpect(jsonPath("$.id").value("1"))
+                .andExpect(jsonPath("$.state").value("PENDING"));
+        Mockito.verify(noteService, Mockito.never()).create(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/notes?strict=true - should answer 201 once the queued note is written")
+    void createNote_ShouldWaitForWriteWhenStrict() throws Exception {
+        CreateNoteDto request = new CreateNoteDto("Test title", "Some content", List.of(NoteTag.IMPORTANT));
+        NoteDetailDto response = new NoteDetailDto(
+                "1", "Test title", "Some content", List.of(NoteTag.IMPORTANT), LocalDateTime.now());
+        NoteWriteBehindService.QueuedNote queued =
+                new NoteWriteBehindService.QueuedNote("1", CompletableFuture.completedFuture(response));
+
+        given(noteWriteBehindService.isEnabled()).willReturn(true);
+        given(noteWriteBehindService.enqueue(any(CreateNoteDto.class))).willReturn(queued);
+        given(noteWriteBehindService.awaitWritten(queued)).willReturn(Optional.of(response));
+
+        mockMvc.perform(post("/api/notes")
+                        .param("strict", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("1"));
+    }
+
+    @Test
+    @DisplayName("POST /api/notes - should return 503 when the write-behind queue is full")
+    void createNote_ShouldReturnServiceUnavailableWhenQueueIsFull() throws Exception {
+        CreateNoteDto request = new CreateNoteDto("Test title", "Some content", List.of(NoteTag.IMPORTANT));
+
+        given(noteWriteBehindService.isEnabled()).willReturn(true);
+        given(noteWriteBehindService.enqueue(any(CreateNoteDto.class)))
+                .willThrow(new RejectedExecutionException("Too many notes waiting to be written"));
+
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     @Test
     @DisplayName("PUT /api/notes/{id} - should update a note")
     void updateNote_ShouldReturnUpdatedNote() throws Exception {
@@ -62,7 +135,7 @@ class NoteControllerTest {
         NoteDetailDto response = new NoteDetailDto(
                 "1", "Updated title", "Updated content", List.of(NoteTag.PERSONAL), LocalDateTime.now());
 
-        given(noteService.update(eq("1"), any(CreateNoteDto.class))).willReturn(response);
+        given(noteService.update(eq("1"), any(CreateNoteDto.class), isNull())).willReturn(new Versioned<>(response, 1));
 
         mockMvc.perform(put("/api/notes/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -75,7 +148,7 @@ class NoteControllerTest {
     @Test
     @DisplayName("DELETE /api/notes/{id} - should delete a note")
     void deleteNote_ShouldReturnNoContent() throws Exception {
-        Mockito.doNothing().when(noteService).deleteNote("1");
+        Mockito.doNothing().when(noteService).deleteNote("1", null);
 
         mockMvc.perform(delete("/api/notes/1"))
                 .andExpect(status().isNoContent());
@@ -85,7 +158,7 @@ class NoteControllerTest {
     @DisplayName("DELETE /api/notes/{id} - should return 404 if not found")
     void deleteNote_ShouldReturnNotFound() throws Exception {
         Mockito.doThrow(new NoSuchElementException("Note not found"))
-                .when(noteService).deleteNote("999");
+                .when(noteService).deleteNote("999", null);
 
         mockMvc.perform(delete("/api/notes/999"))
                 .andExpect(status().isNotFound())
@@ -96,7 +169,7 @@ class NoteControllerTest {
     @DisplayName("GET /api/notes/{id} - should return note summary")
     void getNoteById_ShouldReturnNoteSummary() throws Exception {
         NoteSummaryDto dto = new NoteSummaryDto("1", "Note title", LocalDateTime.now());
-        given(noteService.getById("1")).willReturn(Optional.of(dto));
+        given(noteService.getById("1")).willReturn(Optional.of(new Versioned<>(dto, 0)));
 
         mockMvc.perform(get("/api/notes/1"))
                 .andExpect(status().isOk())
@@ -108,7 +181,7 @@ class NoteControllerTest {
     @DisplayName("GET /api/notes/{id}/text - should return note text")
     void getNoteText_ShouldReturnText() throws Exception {
         NoteTextDto dto = new NoteTextDto("Sample text");
-        given(noteService.getTextById("1")).willReturn(Optional.of(dto));
+        given(noteService.getTextById("1")).willReturn(Optional.of(new Versioned<>(dto, 0)));
 
         mockMvc.perform(get("/api/notes/1/text"))
                 .andExpect(status().isOk())
@@ -124,7 +197,7 @@ class NoteControllerTest {
         );
         PageImpl<NoteSummaryDto> page = new PageImpl<>(list, PageRequest.of(0, 10), 2);
 
-        given(noteService.listNotes(Mockito.<List<NoteTag>>any(), Mockito.anyInt(), Mockito.anyInt()))
+        given(noteService.listNotes(Mockito.<List<NoteTag>>any(), eq(TagMatch.ANY), Mockito.anyInt(), Mockito.anyInt()))
                 .willReturn(page);
 
         mockMvc.perform(get("/api/notes")
@@ -136,14 +209,86 @@ class NoteControllerTest {
                 .andExpect(jsonPath("$.content[1].title").value("Note B"));
     }
 
+    @Test
+    @DisplayName("GET /api/notes?match=all - should pass the tag match in any case")
+    void listNotes_ShouldBindTagMatch() throws Exception {
+        given(noteService.listNotes(eq(List.of(NoteTag.BUSINESS, NoteTag.IMPORTANT)), eq(TagMatch.ALL), eq(0), eq(10)))
+                .willReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+
+        mockMvc.perform(get("/api/notes")
+                        .param("tags", "BUSINESS", "IMPORTANT")
+                        .param("match", "all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+
+        mockMvc.perform(get("/api/notes").param("match", "some"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/search - should return ranked summaries")
+    void searchNotes_ShouldReturnPage() throws Exception {
+        PageImpl<NoteSummaryDto> page = new PageImpl<>(
+                List.of(new NoteSummaryDto("1", "Budget", LocalDateTime.now())), PageRequest.of(0, 10), 1);
+        given(noteSearchService.search(eq("budget"), eq(List.of(NoteTag.BUSINESS)), eq(0), eq(10))).willReturn(page);
+
+        mockMvc.perform(get("/api/notes/search")
+                        .param("q", "budget")
+                        .param("tags", "BUSINESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Budget"));
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/search - should reject a blank query")
+    void searchNotes_ShouldRejectBlankQuery() throws Exception {
+        mockMvc.perform(get("/api/notes/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/search - should reject a page out of range")
+    void searchNotes_ShouldRejectPageOutOfRange() throws Exception {
+        given(noteSearchService.search(eq("budget"), any(), eq(0), eq(0)))
+                .willThrow(new IllegalArgumentException("Page must not be negative and size must be positive"));
+
+        mockMvc.perform(get("/api/notes/search").param("q", "budget").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes?after= - should return a cursor page without totals")
+    void listNotesAfter_ShouldReturnCursorPage() throws Exception {
+        CursorPageDto<NoteSummaryDto> slice = new CursorPageDto<>(
+                List.of(new NoteSummaryDto("1", "Note A", LocalDateTime.now())), 1, "next-token");
+
+        given(noteService.listNotesAfter(Mockito.<List<NoteTag>>any(), eq(TagMatch.ANY), eq(""), eq(1))).willReturn(slice);
+
+        mockMvc.perform(get("/api/notes")
+                        .param("after", "")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Note A"))
+                .andExpect(jsonPath("$.next").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes?after= - should return 400 for a malformed cursor")
+    void listNotesAfter_ShouldReturnBadRequestForMalformedCursor() throws Exception {
+        given(noteService.listNotesAfter(Mockito.<List<NoteTag>>any(), any(), eq("garbage"), anyInt()))
+                .willThrow(new IllegalArgumentException("Invalid cursor: garbage"));
+
+        mockMvc.perform(get("/api/notes").param("after", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /api/notes/{id}/stats - should return note statistics")
     void getNoteStatistics_ShouldReturnStats() throws Exception {
-        NoteTextDto dto = new NoteTextDto("Hello world");
         Map<String, Long> stats = Map.of("words", 2L, "characters", 11L);
 
-        given(noteService.getTextById("1")).willReturn(Optional.of(dto));
-        given(noteService.getNoteStatistics("Hello world")).willReturn(stats);
+        given(noteService.getStatisticsById("1", WordStatisticsFilter.NONE)).willReturn(Optional.of(new Versioned<>(stats, 0)));
 
         mockMvc.perform(get("/api/notes/1/stats"))
                 .andExpect(status().isOk())
@@ -151,13 +296,153 @@ class NoteControllerTest {
                 .andExpect(jsonPath("$.characters").value(11));
     }
 
+    @Test
+    @DisplayName("GET /api/notes/{id}/stats - should pass top-K parameters to the service")
+    void getNoteStatistics_ShouldApplyFilterParameters() throws Exception {
+        WordStatisticsFilter filter = WordStatisticsFilter.of(2, 3L, List.of("the", "a"));
+        given(noteService.getStatisticsById("1", filter)).willReturn(Optional.of(new Versioned<>(Map.of("note", 5L), 0)));
+
+        mockMvc.perform(get("/api/notes/1/stats")
+                        .param("limit", "2")
+                        .param("minCount", "3")
+                        .param("stopwords", "The", "a"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.note").value(5));
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id}/stats - should reject a non-positive limit")
+    void getNoteStatistics_ShouldRejectInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/notes/1/stats").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /api/notes/{id}/stats - should return 404 if note not found")
     void getNoteStatistics_ShouldReturnNotFound() throws Exception {
-        given(noteService.getTextById("999")).willReturn(Optional.empty());
+        given(noteService.getStatisticsById(eq("999"), any(WordStatisticsFilter.class))).willReturn(Optional.empty());
 
         mockMvc.perform(get("/api/notes/999/stats"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("PUT /api/notes/{id} - should return 404 if not found")
+    void updateNote_ShouldReturnNotFound() throws Exception {
+        given(noteService.update(eq("999"), any(CreateNoteDto.class), isNull()))
+                .willThrow(new NoSuchElementException("Note not found with id: 999"));
+
+        mockMvc.perform(put("/api/notes/999")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateNoteDto("T", "x", List.of()))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("PATCH /api/notes/{id} - should set only the provided fields")
+    void patchNote_ShouldReturnSummary() throws Exception {
+        PatchNoteDto patch = new PatchNoteDto(null, null, List.of(NoteTag.BUSINESS));
+        given(noteService.patch("1", patch, null))
+                .willReturn(new Versioned<>(new NoteSummaryDto("1", "Note title", LocalDateTime.now()), 2));
+
+        mockMvc.perform(patch("/api/notes/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tags\":[\"BUSINESS\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Note title"));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/notes/{id} - should reject a blank title and an empty patch")
+    void patchNote_ShouldRejectInvalidPatch() throws Exception {
+        mockMvc.perform(patch("/api/notes/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"  \"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/notes/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(noteService);
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id}/text - should serve a byte range of the text")
+    void getNoteText_ShouldServeRange() throws Exception {
+        Resource text = new ByteArrayResource("Sample text".getBytes(StandardCharsets.UTF_8));
+        given(noteService.getTextResourceById("1")).willReturn(Optional.of(new Versioned<>(text, 2)));
+
+        mockMvc.perform(get("/api/notes/1/text").header("Range", "bytes=7-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 7-10/11"))
+                .andExpect(header().string("ETag", "\"2-plain\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(content().string("text"));
+
+        mockMvc.perform(get("/api/notes/1/text").accept(MediaType.TEXT_PLAIN))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().string("Sample text"));
+
+        Mockito.verify(noteService, Mockito.never()).getTextById(anyString());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id}/text - should return 304 from the version alone")
+    void getNoteText_ShouldReturnNotModified() throws Exception {
+        given(noteService.getVersion("1")).willReturn(Optional.of(4L));
+
+        mockMvc.perform(get("/api/notes/1/text").header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(content().string(""));
+
+        Mockito.verify(noteService, Mockito.never()).getTextById(anyString());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id}/text - should not revalidate one representation with the ETag of the other")
+    void getNoteText_ShouldKeepETagsOfRepresentationsApart() throws Exception {
+        Resource text = new ByteArrayResource("Sample text".getBytes(StandardCharsets.UTF_8));
+        given(noteService.getVersion("1")).willReturn(Optional.of(4L));
+        given(noteService.getTextResourceById("1")).willReturn(Optional.of(new Versioned<>(text, 4)));
+        given(noteService.getTextById("1")).willReturn(Optional.of(new Versioned<>(new NoteTextDto("Sample text"), 4)));
+
+        mockMvc.perform(get("/api/notes/1/text").accept(MediaType.TEXT_PLAIN).header("If-None-Match", "\"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-plain\""));
+        mockMvc.perform(get("/api/notes/1/text").header("If-None-Match", "\"4-plain\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+        mockMvc.perform(get("/api/notes/1/text").accept(MediaType.TEXT_PLAIN).header("If-None-Match", "\"4-plain\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id} - should return the body and ETag of a changed note")
+    void getNoteById_ShouldReturnBodyWhenModified() throws Exception {
+        given(noteService.getVersion("1")).willReturn(Optional.of(5L));
+        given(noteService.getById("1")).willReturn(Optional.of(
+                new Versioned<>(new NoteSummaryDto("1", "Note title", LocalDateTime.now()), 5)));
+
+        mockMvc.perform(get("/api/notes/1").header("If-None-Match", "\"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(jsonPath("$.title").value("Note title"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/notes/{id} - should return 412 when If-Match is stale")
+    void updateNote_ShouldReturnPreconditionFailed() throws Exception {
+        given(noteService.update(eq("1"), any(CreateNoteDto.class), eq(List.of(3L))))
+                .willThrow(new OptimisticLockingFailureException("Note 1 is no longer at version [3]"));
+
+        mockMvc.perform(put("/api/notes/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateNoteDto("T", "x", List.of()))))
+                .andExpect(status().isPreconditionFailed());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.dto.BulkResponseDto;
+import com.thenotesapp.api.service.NoteBulkService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@WebFluxTest(ReactiveNoteBulkController.class)
+class ReactiveNoteBulkControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private NoteBulkService noteBulkService;
+
+    @Test
+    @DisplayName("POST /api/notes/_bulk - should pass the NDJSON body to the bulk service as a stream")
+    void bulk_ShouldStreamTheBodyToTheService() throws Exception {
+        String body = """
+                {"op":"CREATE","note":{"title":"First","text":"one"}}
+                {"op":"DELETE","id":"1"}
+                """;
+        given(noteBulkService.execute(any(InputStream.class))).willAnswer(invocation -> {
+            String read = new String(invocation.<InputStream>getArgument(0).readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(read).isEqualTo(body);
+            return new BulkResponseDto(2, 0, List.of());
+        });
+
+        webTestClient.post().uri("/api/notes/_bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.succeeded").isEqualTo(2);
+    }
+}
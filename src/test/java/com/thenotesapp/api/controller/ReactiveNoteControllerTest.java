@@ -0,0 +1,259 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.dto.*;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.service.NoteSearchService;
+import com.thenotesapp.api.service.NoteWriteBehindService;
+import com.thenotesapp.api.service.ReactiveNoteService;
+import com.thenotesapp.api.service.Versioned;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@WebFluxTest(ReactiveNoteController.class)
+class ReactiveNoteControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveNoteService noteService;
+
+    @MockBean
+    private NoteSearchService noteSearchService;
+
+    @MockBean
+    private NoteWriteBehindService noteWriteBehindService;
+
+    @Test
+    @DisplayName("POST /api/notes - should create a note")
+    void createNote_ShouldReturnCreatedNote() {
+        NoteDetailDto response = new NoteDetailDto(
+                "1", "Test title", "Some content", List.of(NoteTag.IMPORTANT), LocalDateTime.now());
+        given(noteService.create(any(CreateNoteDto.class))).willReturn(Mono.just(response));
+
+        webTestClient.post().uri("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateNoteDto("Test title", "Some content", List.of(NoteTag.IMPORTANT)))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("1")
+                .jsonPath("$.text").isEqualTo("Some content");
+    }
+
+    @Test
+    @DisplayName("POST /api/notes - should accept a queued note with its status URL")
+    void createNote_ShouldAcceptQueuedNote() {
+        given(noteWriteBehindService.isEnabled()).willReturn(true);
+        given(noteWriteBehindService.enqueue(any(CreateNoteDto.class)))
+                .willReturn(new NoteWriteBehindService.QueuedNote("1", new CompletableFuture<>()));
+
+        webTestClient.post().uri("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateNoteDto("Test title", "Some content", List.of()))
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().value(HttpHeaders.LOCATION, location -> assertThat(location).endsWith("/api/notes/1/status"))
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("1")
+                .jsonPath("$.state").isEqualTo("PENDING");
+        verify(noteService, never()).create(any(CreateNoteDto.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/notes?strict=true - should answer 201 once the queued note is written")
+    void createNote_ShouldWaitForTheWriteWhenStrict() {
+        NoteDetailDto response = new NoteDetailDto(
+                "1", "Test title", "Some content", List.of(), LocalDateTime.now());
+        NoteWriteBehindService.QueuedNote queued =
+                new NoteWriteBehindService.QueuedNote("1", CompletableFuture.completedFuture(response));
+        given(noteWriteBehindService.isEnabled()).willReturn(true);
+        given(noteWriteBehindService.enqueue(any(CreateNoteDto.class))).willReturn(queued);
+        given(noteWriteBehindService.whenWritten(queued)).willReturn(CompletableFuture.completedFuture(Optional.of(response)));
+
+        webTestClient.post().uri("/api/notes?strict=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateNoteDto("Test title", "Some content", List.of()))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("1")
+                .jsonPath("$.text").isEqualTo("Some content");
+    }
+
+    @Test
+    @DisplayName("POST /api/notes?strict=true - should answer 500 if the queued note could not be written")
+    void createNote_ShouldReportAFailedWriteWhenStrict() {
+        NoteWriteBehindService.QueuedNote queued = new NoteWriteBehindService.QueuedNote("1", new CompletableFuture<>());
+        given(noteWriteBehindService.isEnabled()).willReturn(true);
+        given(noteWriteBehindService.enqueue(any(CreateNoteDto.class))).willReturn(queued);
+        given(noteWriteBehindService.whenWritten(queued))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("Note 1 was not written")));
+
+        webTestClient.post().uri("/api/notes?strict=true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateNoteDto("Test title", "Some content", List.of()))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    @Test
+    @DisplayName("POST /api/notes - should answer 503 when the write-behind queue is full")
+    void createNote_ShouldRejectWhenTheQueueIsFull() {
+        given(noteWriteBehindService.isEnabled()).willReturn(true);
+        given(noteWriteBehindService.enqueue(any(CreateNoteDto.class)))
+                .willThrow(new RejectedExecutionException("Too many notes waiting to be written"));
+
+        webTestClient.post().uri("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateNoteDto("Test title", "Some content", List.of()))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id}/status - should return the write state, or 404 for an unknown note")
+    void getWriteStatus_ShouldReturnTheState() {
+        given(noteWriteBehindService.status("1"))
+                .willReturn(Optional.of(new NoteWriteStatusDto("1", NoteWriteState.WRITTEN, null)));
+        given(noteWriteBehindService.status("999")).willReturn(Optional.empty());
+
+        webTestClient.get().uri("/api/notes/1/status")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.state").isEqualTo("WRITTEN");
+        webTestClient.get().uri("/api/notes/999/status")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("POST /api/notes - should reject a blank title")
+    void createNote_ShouldRejectInvalidNote() {
+        webTestClient.post().uri("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CreateNoteDto("", "Some content", List.of()))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id} - should return 404 if not found")
+    void getNoteById_ShouldReturnNotFound() {
+        given(noteService.getById("999")).willReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/notes/999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("DELETE /api/notes/{id} - should return 404 if not found")
+    void deleteNote_ShouldReturnNotFound() {
+        given(noteService.deleteNote("999", null)).willReturn(Mono.error(new NoSuchElementException("Note not found")));
+
+        webTestClient.delete().uri("/api/notes/999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("GET /api/notes?after= - should return 400 for a malformed cursor")
+    void listNotesAfter_ShouldReturnBadRequestForMalformedCursor() {
+        given(noteService.listNotesAfter(any(), any(), any(), anyInt()))
+                .willReturn(Mono.error(new IllegalArgumentException("Invalid cursor: garbage")));
+
+        webTestClient.get().uri("/api/notes?after=garbage")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id}/text - should serve a byte range of the text")
+    void getNoteText_ShouldServeRange() {
+        Resource text = new ByteArrayResource("Sample text".getBytes(StandardCharsets.UTF_8));
+        given(noteService.getTextResourceById("1")).willReturn(Mono.just(new Versioned<>(text, 2)));
+
+        webTestClient.get().uri("/api/notes/1/text").header("Range", "bytes=7-10")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectHeader().valueEquals("Content-Range", "bytes 7-10/11")
+                .expectHeader().valueEquals("ETag", "\"2-plain\"")
+                .expectHeader().valueEquals("Vary", "Accept")
+                .expectBody(String.class).isEqualTo("text");
+
+        webTestClient.get().uri("/api/notes/1/text").accept(MediaType.TEXT_PLAIN)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_PLAIN)
+                .expectBody(String.class).isEqualTo("Sample text");
+
+        verify(noteService, never()).getTextById(anyString());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id}/text - should answer JSON without Range or Accept: text/plain")
+    void getNoteText_ShouldReturnJsonByDefault() {
+        given(noteService.getTextById("1")).willReturn(Mono.just(new Versioned<>(new NoteTextDto("Sample text"), 2)));
+
+        webTestClient.get().uri("/api/notes/1/text")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"2\"")
+                .expectHeader().valueEquals("Vary", "Accept")
+                .expectBody()
+                .jsonPath("$.text").isEqualTo("Sample text");
+
+        verify(noteService, never()).getTextResourceById(anyString());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id}/text - should revalidate the plain text with its own ETag")
+    void getNoteText_ShouldReturnNotModifiedForPlainText() {
+        given(noteService.getVersion("1")).willReturn(Mono.just(4L));
+
+        webTestClient.get().uri("/api/notes/1/text").accept(MediaType.TEXT_PLAIN)
+                .header("If-None-Match", "\"4-plain\"")
+                .exchange()
+                .expectStatus().isNotModified();
+
+        verify(noteService, never()).getTextResourceById(anyString());
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/{id}/text - should return 404 for the plain text of a missing note")
+    void getNoteText_ShouldReturnNotFoundForPlainText() {
+        given(noteService.getTextResourceById("999")).willReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/notes/999/text").accept(MediaType.TEXT_PLAIN)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,57 @@
+package com.thenotesapp.api.controller;
+
+import com.thenotesapp.api.service.NoteExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@WebFluxTest(ReactiveNoteExportController.class)
+class ReactiveNoteExportControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private NoteExportService noteExportService;
+
+    @Test
+    @DisplayName("GET /api/notes/_export - should stream what the export service writes as an NDJSON attachment")
+    void exportNotes_ShouldStreamTheExport() throws Exception {
+        given(noteExportService.export(isNull(), isNull(), isNull(), any(OutputStream.class))).willAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write("{\"id\":\"1\"}\n{\"id\":\"2\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        webTestClient.get().uri("/api/notes/_export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType("application/x-ndjson;charset=UTF-8")
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\"")
+                .expectBody(String.class).isEqualTo("{\"id\":\"1\"}\n{\"id\":\"2\"}\n");
+    }
+
+    @Test
+    @DisplayName("GET /api/notes/_export - should reject a 'from' that is not before 'to'")
+    void exportNotes_ShouldRejectAnEmptyRange() {
+        LocalDateTime at = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        webTestClient.get().uri("/api/notes/_export?from={from}&to={to}", at, at)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(noteExportService);
+    }
+}
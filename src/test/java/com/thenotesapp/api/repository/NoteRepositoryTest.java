@@ -2,6 +2,8 @@ package com.thenotesapp.api.repository;
 
 import com.thenotesapp.api.model.Note;
 import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.TagMatch;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,6 +11,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MongoDBContainer;
@@ -67,6 +71,35 @@ class NoteRepositoryTest {
         assertThat(page.getContent()).isEmpty();
     }
 
+    @Test
+    @DisplayName("Should match any, all or none of the tags on the tag mask")
+    void findSummariesByTagMask_ShouldApplyTagMatch() {
+        List<NoteTag> tags = List.of(NoteTag.BUSINESS, NoteTag.IMPORTANT);
+        PageRequest pageable = PageRequest.of(0, 10);
+
+        assertThat(noteRepository.findSummariesByTagMask(TagMatch.ANY.filter(tags), pageable).getContent())
+                .extracting(Note::getTitle)
+                .containsExactlyInAnyOrder("Note 1", "Note 2", "Note 3");
+        assertThat(noteRepository.findSummariesByTagMask(TagMatch.ALL.filter(tags), pageable).getContent())
+                .extracting(Note::getTitle)
+                .containsExactly("Note 2");
+        assertThat(noteRepository.findSummariesByTagMask(TagMatch.NONE.filter(List.of(NoteTag.BUSINESS)), pageable).getContent())
+                .extracting(Note::getTitle)
+                .containsExactly("Note 1");
+    }
+
+    @Test
+    @DisplayName("Should store the tags as a mask")
+    void save_ShouldStoreTagMask() {
+        Note note = noteRepository.save(new Note(null, "Note 4", "Text 4", LocalDateTime.now(),
+                List.of(NoteTag.PERSONAL, NoteTag.IMPORTANT, NoteTag.PERSONAL)));
+
+        Note found = noteRepository.findById(note.getId()).orElseThrow();
+
+        assertThat(found.getTagMask()).isEqualTo(NoteTag.PERSONAL.bit() | NoteTag.IMPORTANT.bit());
+        assertThat(found.tagSet()).containsExactly(NoteTag.PERSONAL, NoteTag.IMPORTANT);
+    }
+
     @Test
     @DisplayName("Should store and retrieve notes correctly")
     void saveAndFindAll_ShouldWorkCorrectly() {
@@ -77,4 +110,48 @@ class NoteRepositoryTest {
         List<Note> all = noteRepository.findAll();
         assertThat(all).hasSize(4);
     }
+
+    @Test
+    @DisplayName("Should walk all notes with keyset slices")
+    void findAllAfter_ShouldContinueFromCursor() {
+        PageRequest firstPage = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdDate", "id"));
+        Slice<Note> first = noteRepository.findAllBy(firstPage);
+
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+
+        Note last = first.getContent().get(1);
+        Slice<Note> second = noteRepository.findAllAfter(
+                last.getCreatedDate(), new ObjectId(last.getId()), firstPage);
+
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getContent())
+                .extracting(Note::getId)
+                .doesNotContainAnyElementsOf(first.getContent().stream().map(Note::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should load summaries without the note text")
+    void findSummaryById_ShouldNotLoadText() {
+        Note saved = noteRepository.save(new Note(null, "Projected", "Large text", LocalDateTime.now(), List.of(NoteTag.PERSONAL)));
+
+        Note summary = noteRepository.findSummaryById(saved.getId()).orElseThrow();
+
+        assertThat(summary.getTitle()).isEqualTo("Projected");
+        assertThat(summary.getTags()).containsExactly(NoteTag.PERSONAL);
+        assertThat(summary.getText()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should load only the text of a note")
+    void findTextById_ShouldLoadOnlyText() {
+        Note saved = noteRepository.save(new Note(null, "Projected", "Large text", LocalDateTime.now(), List.of(NoteTag.PERSONAL)));
+
+        Note text = noteRepository.findTextById(saved.getId()).orElseThrow();
+
+        assertThat(text.getText()).isEqualTo("Large text");
+        assertThat(text.getTitle()).isNull();
+        assertThat(text.getTags()).isNull();
+    }
 }
\ No newline at end of file
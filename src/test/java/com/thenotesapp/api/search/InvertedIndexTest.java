@@ -0,0 +1,88 @@
+package com.thenotesapp.api.search;
+
+import com.thenotesapp.api.model.NoteTag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        LocalDateTime now = LocalDateTime.now();
+        index.put("1", "Budget", now, List.of(NoteTag.BUSINESS), Map.of("budget", 5, "review", 1));
+        index.put("2", "Shopping", now, List.of(NoteTag.PERSONAL), Map.of("milk", 2, "budget", 1, "eggs", 1, "bread", 1));
+        index.put("3", "Call", now, List.of(NoteTag.IMPORTANT, NoteTag.BUSINESS), Map.of("call", 1, "client", 1));
+    }
+
+    @Test
+    @DisplayName("Should rank documents by term frequency")
+    void search_ShouldRankByRelevance() {
+        InvertedIndex.Hits hits = index.search(List.of("budget"), null, 0, 10);
+
+        assertThat(hits.total()).isEqualTo(2);
+        assertThat(hits.hits()).extracting(InvertedIndex.Hit::id).containsExactly("1", "2");
+    }
+
+    @Test
+    @DisplayName("Should filter hits by any of the tags")
+    void search_ShouldFilterByTags() {
+        InvertedIndex.Hits hits = index.search(List.of("budget", "client"), List.of(NoteTag.BUSINESS), 0, 10);
+
+        assertThat(hits.hits()).extracting(InvertedIndex.Hit::id).containsExactlyInAnyOrder("1", "3");
+    }
+
+    @Test
+    @DisplayName("Should page through ranked hits")
+    void search_ShouldApplyOffsetAndLimit() {
+        InvertedIndex.Hits hits = index.search(List.of("budget"), null, 1, 1);
+
+        assertThat(hits.total()).isEqualTo(2);
+        assertThat(hits.hits()).extracting(InvertedIndex.Hit::id).containsExactly("2");
+    }
+
+    @Test
+    @DisplayName("Should forget removed and replaced documents")
+    void removeAndPut_ShouldUpdatePostings() {
+        assertThat(index.remove("1")).isTrue();
+        index.put("2", "Shopping", LocalDateTime.now(), List.of(), Map.of("milk", 1));
+
+        assertThat(index.search(List.of("budget"), null, 0, 10).total()).isZero();
+        assertThat(index.search(List.of("milk"), null, 0, 10).hits())
+                .extracting(InvertedIndex.Hit::id).containsExactly("2");
+        assertThat(index.documentCount()).isEqualTo(2);
+        assertThat(index.remove("1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep postings consistent while documents are removed and ids reused")
+    void removeAndPut_ShouldKeepPostingsOfManyDocuments() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 10; i < 60; i++) {
+            index.put(String.valueOf(i), "Note " + i, now, List.of(), Map.of("common", 1 + i % 3));
+        }
+        for (int i = 10; i < 60; i += 2) {
+            assertThat(index.remove(String.valueOf(i))).isTrue();
+        }
+        for (int i = 100; i < 110; i++) {
+            index.put(String.valueOf(i), "Note " + i, now, List.of(), Map.of("common", 1));
+        }
+        assertThat(index.remove("11")).isTrue();
+
+        InvertedIndex.Hits hits = index.search(List.of("common"), null, 0, 100);
+
+        assertThat(hits.total()).isEqualTo(34);
+        assertThat(hits.hits()).extracting(InvertedIndex.Hit::id)
+                .contains("13", "59", "100", "109")
+                .doesNotContain("10", "11", "58");
+    }
+}
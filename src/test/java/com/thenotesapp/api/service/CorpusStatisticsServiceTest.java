@@ -0,0 +1,108 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.WordStat;
+import com.thenotesapp.api.stats.WordFrequencyCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import(CorpusStatisticsService.class)
+@Testcontainers
+class CorpusStatisticsServiceTest {
+
+    @Container
+    static final MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.5");
+
+    @DynamicPropertySource
+    static void setMongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private CorpusStatisticsService corpusStatisticsService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void clean() {
+        mongoTemplate.remove(new Query(), WordStat.class);
+        mongoTemplate.remove(new Query(), Note.class);
+    }
+
+    private static Note note(String id, String text, NoteTag... tags) {
+        Note note = new Note(id, "Title", text, LocalDateTime.now(), List.of(tags));
+        note.setWordFrequencies(WordFrequencyCounter.count(text));
+        return note;
+    }
+
+    @Test
+    @DisplayName("Should add counts of created notes to all and per-tag scopes")
+    void onNoteChanged_ShouldAddCreatedNotes() {
+        corpusStatisticsService.onNoteChanged(NoteChangedEvent.created(note("1", "alpha alpha beta", NoteTag.IMPORTANT)));
+        corpusStatisticsService.onNoteChanged(NoteChangedEvent.created(note("2", "alpha gamma", NoteTag.PERSONAL)));
+
+        assertThat(corpusStatisticsService.topWords(10))
+                .containsEntry("alpha", 3L)
+                .containsEntry("beta", 1L)
+                .containsEntry("gamma", 1L);
+        assertThat(corpusStatisticsService.topWords(NoteTag.IMPORTANT, 10).keySet())
+                .containsExactly("alpha", "beta");
+        assertThat(corpusStatisticsService.topWords(1).keySet()).containsExactly("alpha");
+    }
+
+    @Test
+    @DisplayName("Should apply update and delete deltas and invalidate cached tops")
+    void onNoteChanged_ShouldApplyDeltas() {
+        Note original = note("1", "alpha alpha beta", NoteTag.IMPORTANT);
+        corpusStatisticsService.onNoteChanged(NoteChangedEvent.created(original));
+        assertThat(corpusStatisticsService.topWords(NoteTag.IMPORTANT, 10)).containsKey("beta");
+
+        Note updated = note("1", "alpha delta", NoteTag.BUSINESS);
+        corpusStatisticsService.onNoteChanged(NoteChangedEvent.updated(original, updated));
+
+        assertThat(corpusStatisticsService.topWords(NoteTag.IMPORTANT, 10)).isEmpty();
+        assertThat(corpusStatisticsService.topWords(NoteTag.BUSINESS, 10))
+                .containsEntry("alpha", 1L)
+                .containsEntry("delta", 1L);
+
+        corpusStatisticsService.onNoteChanged(NoteChangedEvent.deleted(updated));
+
+        assertThat(corpusStatisticsService.topWords(10)).isEmpty();
+        assertThat(mongoTemplate.count(new Query(), WordStat.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the aggregate from stored notes")
+    void rebuild_ShouldRecomputeFromNotes() {
+        mongoTemplate.save(note(null, "one two two", NoteTag.PERSONAL));
+        Note legacy = new Note(null, "Legacy", "two three", LocalDateTime.now(), List.of());
+        mongoTemplate.save(legacy);
+
+        corpusStatisticsService.rebuild();
+
+        assertThat(corpusStatisticsService.topWords(10))
+                .containsEntry("two", 3L)
+                .containsEntry("one", 1L)
+                .containsEntry("three", 1L);
+        assertThat(corpusStatisticsService.topWords(NoteTag.PERSONAL, 10)).doesNotContainKey("three");
+    }
+}
@@ -0,0 +1,151 @@
+package com.thenotesapp.api.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.thenotesapp.api.dto.BulkItemResultDto;
+import com.thenotesapp.api.dto.BulkResponseDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.repository.NoteRepository;
+import com.thenotesapp.api.storage.NoteTextCodec;
+import com.thenotesapp.api.storage.NoteTextStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteBulkServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private GridFsOperations gridFs;
+
+    private NoteBulkService bulkService;
+
+    @BeforeEach
+    void setUp() {
+        NoteTextStore textStore = new NoteTextStore(gridFs, new NoteTextCodec(new SimpleMeterRegistry(), false, 0), false, 0);
+        NoteService noteService = new NoteService(noteRepository, eventPublisher,
+                new NoteCache(new SimpleMeterRegistry(), false, 0, Duration.ZERO), textStore, new SimpleMeterRegistry());
+        bulkService = new NoteBulkService(mongoTemplate, noteService, Jackson2ObjectMapperBuilder.json().build(),
+                Validation.buildDefaultValidatorFactory().getValidator(), eventPublisher, textStore, 1);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulkOperations);
+    }
+
+    private BulkResponseDto execute(String body) throws Exception {
+        return bulkService.execute(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Note note(String id, String title, long version) {
+        Note note = new Note(id, title, "text", LocalDateTime.now(), List.of(NoteTag.PERSONAL));
+        note.setVersion(version);
+        return note;
+    }
+
+    private static BulkWriteResult written(int inserted, int matched, int deleted) {
+        return BulkWriteResult.acknowledged(inserted, matched, deleted, matched, List.of(), List.of());
+    }
+
+    @Test
+    void execute_ShouldReportConflictWhenTheNoteChangedAfterTheSnapshot() throws Exception {
+        when(mongoTemplate.find(any(Query.class), eq(Note.class)))
+                .thenReturn(List.of(note("a", "Old", 1)))
+                .thenReturn(List.of(note("a", "Concurrent", 2)));
+        when(bulkOperations.updateOne(any(Query.class), any(Update.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(written(0, 0, 0));
+
+        BulkResponseDto response = execute("""
+                {"op":"UPDATE","id":"a","note":{"title":"New","text":"text"}}
+                """);
+
+        assertThat(response.getItems()).extracting(BulkItemResultDto::getStatus).containsExactly(409);
+        ArgumentCaptor<Query> filter = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations).updateOne(filter.capture(), any(Update.class));
+        assertThat(filter.getValue().getQueryObject()).containsEntry("_id", "a").containsEntry("version", 1L);
+        verify(eventPublisher, never()).publishEvent(any(NoteChangedEvent.class));
+    }
+
+    @Test
+    void execute_ShouldReportNotFoundWhenTheNoteWasDeletedAfterTheSnapshot() throws Exception {
+        when(mongoTemplate.find(any(Query.class), eq(Note.class)))
+                .thenReturn(List.of(note("a", "Old", 1)))
+                .thenReturn(List.of());
+        when(bulkOperations.remove(any(Query.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(written(0, 0, 0));
+
+        BulkResponseDto response = execute("""
+                {"op":"DELETE","id":"a"}
+                """);
+
+        assertThat(response.getItems()).extracting(BulkItemResultDto::getStatus).containsExactly(404);
+        verify(eventPublisher, never()).publishEvent(any(NoteChangedEvent.class));
+    }
+
+    @Test
+    void execute_ShouldFailOnlyTheBatchThatFailedWithAnyException() throws Exception {
+        when(bulkOperations.insert(any(Note.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute())
+                .thenThrow(new DataAccessResourceFailureException("timed out"))
+                .thenReturn(written(1, 0, 0));
+
+        BulkResponseDto response = execute("""
+                {"op":"CREATE","note":{"title":"First","text":"one"}}
+                {"op":"CREATE","note":{"title":"Second","text":"two"}}
+                """);
+
+        assertThat(response.getItems()).extracting(BulkItemResultDto::getStatus).containsExactly(500, 201);
+        assertThat(response.getItems().get(0).getError()).isEqualTo("timed out");
+        verify(eventPublisher, times(1)).publishEvent(any(NoteChangedEvent.class));
+    }
+
+    @Test
+    void execute_ShouldPublishEveryWriteWhenAListenerFails() throws Exception {
+        when(bulkOperations.insert(any(Note.class))).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(written(1, 0, 0));
+        doThrow(new IllegalStateException("listener failed"))
+                .doNothing()
+                .when(eventPublisher).publishEvent(any(NoteChangedEvent.class));
+
+        BulkResponseDto response = execute("""
+                {"op":"CREATE","note":{"title":"First","text":"one"}}
+                {"op":"CREATE","note":{"title":"Second","text":"two"}}
+                """);
+
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        verify(eventPublisher, times(2)).publishEvent(any(NoteChangedEvent.class));
+    }
+}
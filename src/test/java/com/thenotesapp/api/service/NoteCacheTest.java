@@ -0,0 +1,85 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.dto.NoteTextDto;
+import com.thenotesapp.api.model.Note;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private NoteCache noteCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        noteCache = new NoteCache(meterRegistry, true, 10_000, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    private Optional<NoteTextDto> load(String id) {
+        loads.incrementAndGet();
+        return Optional.of(new NoteTextDto("text of " + id));
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeHitsFromCache() {
+        noteCache.get(NoteCache.Kind.TEXT, "1", this::load);
+        Optional<NoteTextDto> second = noteCache.get(NoteCache.Kind.TEXT, "1", this::load);
+
+        assertThat(second).contains(new NoteTextDto("text of 1"));
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingNotes() {
+        noteCache.get(NoteCache.Kind.TEXT, "1", id -> Optional.empty());
+
+        assertThat(noteCache.get(NoteCache.Kind.TEXT, "1", this::load)).isPresent();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void onNoteChanged_ShouldInvalidateEveryKindOfTheNote() {
+        noteCache.get(NoteCache.Kind.TEXT, "1", this::load);
+        noteCache.get(NoteCache.Kind.TEXT, "2", this::load);
+
+        Note note = new Note();
+        note.setId("1");
+        noteCache.onNoteChanged(NoteChangedEvent.deleted(note));
+
+        noteCache.get(NoteCache.Kind.TEXT, "1", this::load);
+        noteCache.get(NoteCache.Kind.TEXT, "2", this::load);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void get_ShouldDiscardLoadRacingWithInvalidation() {
+        noteCache.get(NoteCache.Kind.TEXT, "1", id -> {
+            noteCache.invalidate(id);
+            return load(id);
+        });
+
+        noteCache.get(NoteCache.Kind.TEXT, "1", this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_ShouldPassThroughWhenDisabled() {
+        NoteCache disabled = new NoteCache(meterRegistry, false, 0, Duration.ZERO);
+
+        disabled.get(NoteCache.Kind.TEXT, "1", this::load);
+        disabled.get(NoteCache.Kind.TEXT, "1", this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,80 @@
+package com.thenotesapp.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thenotesapp.api.dto.NoteDetailDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.storage.NoteTextCodec;
+import com.thenotesapp.api.storage.NoteTextStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NoteExportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private GridFsOperations gridFs;
+
+    private ObjectMapper objectMapper;
+    private NoteExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        NoteTextStore textStore = new NoteTextStore(gridFs, new NoteTextCodec(new SimpleMeterRegistry(), false, 0), false, 0);
+        exportService = new NoteExportService(mongoTemplate, objectMapper, textStore, 100);
+    }
+
+    @Test
+    void export_ShouldWriteOneNotePerLine() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2024, 3, 1, 12, 30);
+        List<Note> notes = List.of(
+                new Note("1", "First", "one", created, List.of(NoteTag.BUSINESS)),
+                new Note("2", "Second", "two", created.minusDays(1), List.of()),
+                new Note("3", "Third", "three", created.minusDays(2), List.of(NoteTag.PERSONAL, NoteTag.IMPORTANT)));
+        when(mongoTemplate.stream(any(Query.class), eq(Note.class))).thenReturn(notes.stream());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.export(null, null, null, out);
+
+        assertThat(written).isEqualTo(3);
+        StringBuilder expected = new StringBuilder();
+        for (Note note : notes) {
+            expected.append(objectMapper.writeValueAsString(new NoteDetailDto(
+                    note.getId(), note.getTitle(), note.getText(), note.getTags(), note.getCreatedDate()))).append('\n');
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+    }
+
+    @Test
+    void export_ShouldWriteNothingWithoutNotes() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(Note.class))).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(exportService.export(List.of(NoteTag.BUSINESS), null, null, out)).isZero();
+        assertThat(out.size()).isZero();
+    }
+}
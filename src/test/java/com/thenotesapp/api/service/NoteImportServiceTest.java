@@ -0,0 +1,99 @@
+package com.thenotesapp.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thenotesapp.api.dto.ImportSummaryDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.repository.NoteRepository;
+import com.thenotesapp.api.storage.NoteTextCodec;
+import com.thenotesapp.api.storage.NoteTextStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteImportServiceTest {
+
+    private static final String NDJSON = """
+            {"title":"First","text":"one"}
+            {"title":"Second","text":"two"}
+            {"title":"Third","text":"three"}
+            """;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private GridFsOperations gridFs;
+
+    private NoteImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        NoteTextStore textStore = new NoteTextStore(gridFs, new NoteTextCodec(new SimpleMeterRegistry(), false, 0), false, 0);
+        NoteService noteService = new NoteService(noteRepository, eventPublisher,
+                new NoteCache(new SimpleMeterRegistry(), false, 0, Duration.ZERO), textStore, new SimpleMeterRegistry());
+        importService = new NoteImportService(mongoTemplate, noteService, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), eventPublisher, textStore, Runnable::run, 2, 1);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulkOperations);
+    }
+
+    private ImportSummaryDto importNotes() throws Exception {
+        return importService.importNotes(new ByteArrayInputStream(NDJSON.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void importNotes_ShouldPublishEveryNoteWhenAListenerFails() throws Exception {
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        doThrow(new IllegalStateException("listener failed"))
+                .doNothing()
+                .when(eventPublisher).publishEvent(any(NoteChangedEvent.class));
+
+        ImportSummaryDto summary = importNotes();
+
+        assertThat(summary.getImported()).isEqualTo(3);
+        assertThat(summary.getFailed()).isZero();
+        verify(eventPublisher, times(3)).publishEvent(any(NoteChangedEvent.class));
+    }
+
+    @Test
+    void importNotes_ShouldCountBatchesFailingWithAnyExceptionAsFailed() throws Exception {
+        when(bulkOperations.insert(anyList()))
+                .thenThrow(new IllegalStateException("codec failed"))
+                .thenReturn(bulkOperations);
+
+        ImportSummaryDto summary = importNotes();
+
+        assertThat(summary.getImported()).isEqualTo(1);
+        assertThat(summary.getFailed()).isEqualTo(2);
+        assertThat(summary.getErrors()).extracting("error").containsOnly("codec failed");
+        verify(eventPublisher, times(1)).publishEvent(any(NoteChangedEvent.class));
+    }
+}
@@ -0,0 +1,120 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.NoteDetailDto;
+import com.thenotesapp.api.dto.NoteSummaryDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards {@link NoteMapper} against fields added to a note or one of its DTOs without a mapping.
+ */
+class NoteMapperTest {
+
+    // stored or derived on write, never part of a request or response
+    private static final Set<String> NOTE_ONLY_FIELDS =
+            Set.of("wordFrequencies", "version", "compressedText", "textFileId", "tagMask");
+
+    @Test
+    @DisplayName("Should copy every request field to the note")
+    void toNote_ShouldCopyEveryField() throws Exception {
+        CreateNoteDto dto = populated(new CreateNoteDto());
+
+        Note note = NoteMapper.toNote(dto);
+
+        for (Field field : fieldsOf(CreateNoteDto.class)) {
+            assertThat(valueOf(note, field.getName()))
+                    .as("CreateNoteDto.%s on Note", field.getName())
+                    .isEqualTo(field.get(dto));
+        }
+    }
+
+    @Test
+    @DisplayName("Should copy every response field from the note")
+    void toDetailAndSummary_ShouldCopyEveryField() throws Exception {
+        Note note = populated(new Note());
+
+        NoteDetailDto detail = NoteMapper.toDetail(note, note.getText());
+        NoteSummaryDto summary = NoteMapper.toSummary(note);
+
+        for (Field field : fieldsOf(NoteDetailDto.class)) {
+            assertThat(field.get(detail)).as("NoteDetailDto.%s", field.getName()).isEqualTo(valueOf(note, field.getName()));
+        }
+        for (Field field : fieldsOf(NoteSummaryDto.class)) {
+            assertThat(field.get(summary)).as("NoteSummaryDto.%s", field.getName()).isEqualTo(valueOf(note, field.getName()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should expose every note field in a DTO unless it is internal")
+    void note_ShouldHaveNoUnmappedFields() {
+        Set<String> mapped = fieldsOf(NoteDetailDto.class).stream().map(Field::getName).collect(Collectors.toSet());
+
+        assertThat(fieldsOf(Note.class).stream().map(Field::getName))
+                .allMatch(name -> mapped.contains(name) || NOTE_ONLY_FIELDS.contains(name));
+    }
+
+    private static List<Field> fieldsOf(Class<?> type) {
+        return Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .peek(field -> field.setAccessible(true))
+                .toList();
+    }
+
+    private static Object valueOf(Object target, String fieldName) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    // a distinct non-null value in every field, so a missing or swapped mapping shows up
+    private static <T> T populated(T target) throws IllegalAccessException {
+        for (Field field : fieldsOf(target.getClass())) {
+            field.set(target, sampleValue(field));
+        }
+        return target;
+    }
+
+    private static Object sampleValue(Field field) {
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return field.getName() + "-value";
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.of(2024, 3, 1, 12, 30);
+        }
+        if (type == List.class) {
+            return List.of(NoteTag.IMPORTANT, NoteTag.PERSONAL);
+        }
+        if (type == Map.class) {
+            return Map.of("word", 2L);
+        }
+        if (type == int.class) {
+            return 5;
+        }
+        if (type == Long.class) {
+            return 7L;
+        }
+        if (type == byte[].class) {
+            return new byte[]{1, 2, 3};
+        }
+        if (type == ObjectId.class) {
+            return new ObjectId();
+        }
+        throw new IllegalStateException("No sample value for " + field + ", add one");
+    }
+}
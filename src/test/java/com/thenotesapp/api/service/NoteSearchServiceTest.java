@@ -0,0 +1,97 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.dto.NoteSummaryDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.stats.WordFrequencyCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class NoteSearchServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private NoteSearchService noteSearchService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        noteSearchService = new NoteSearchService(mock(MongoTemplate.class), meterRegistry, Runnable::run, false);
+    }
+
+    private static Note note(String id, String title, String text, NoteTag... tags) {
+        Note note = new Note(id, title, text, LocalDateTime.now(), List.of(tags));
+        note.setWordFrequencies(WordFrequencyCounter.count(text));
+        return note;
+    }
+
+    @Test
+    void search_ShouldFindNotesByTitleAndText() {
+        noteSearchService.onNoteChanged(NoteChangedEvent.created(note("1", "Quarterly budget", "numbers", NoteTag.BUSINESS)));
+        noteSearchService.onNoteChanged(NoteChangedEvent.created(note("2", "Groceries", "milk and budget", NoteTag.PERSONAL)));
+
+        Page<NoteSummaryDto> result = noteSearchService.search("Budget!", null, 0, 10);
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting(NoteSummaryDto::getId).containsExactly("1", "2");
+    }
+
+    @Test
+    void search_ShouldReflectUpdatesAndDeletes() {
+        Note original = note("1", "Plan", "release plan", NoteTag.BUSINESS);
+        noteSearchService.onNoteChanged(NoteChangedEvent.created(original));
+        noteSearchService.onNoteChanged(NoteChangedEvent.updated(original, note("1", "Plan", "vacation", NoteTag.PERSONAL)));
+
+        assertThat(noteSearchService.search("release", null, 0, 10).getContent()).isEmpty();
+        assertThat(noteSearchService.search("vacation", List.of(NoteTag.BUSINESS), 0, 10).getContent()).isEmpty();
+        assertThat(noteSearchService.search("vacation", List.of(NoteTag.PERSONAL), 0, 10).getContent()).hasSize(1);
+
+        noteSearchService.onNoteChanged(NoteChangedEvent.deleted(original));
+
+        assertThat(noteSearchService.search("plan", null, 0, 10).getTotalElements()).isZero();
+    }
+
+    @Test
+    void search_ShouldReportIndexMetrics() {
+        noteSearchService.onNoteChanged(NoteChangedEvent.created(note("1", "Title", "some words here")));
+        noteSearchService.search("words", null, 0, 10);
+
+        assertThat(meterRegistry.get("notes.search.index.documents").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("notes.search.index.bytes.per.note").gauge().value()).isPositive();
+        assertThat(meterRegistry.get("notes.search.query").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void search_ShouldTrackIndexBytesAcrossUpdatesAndDeletes() {
+        Note original = note("1", "Title", "some words here");
+        noteSearchService.onNoteChanged(NoteChangedEvent.created(original));
+        double bytes = meterRegistry.get("notes.search.index.bytes").gauge().value();
+        noteSearchService.onNoteChanged(NoteChangedEvent.created(note("2", "Longer title", "more words")));
+
+        noteSearchService.onNoteChanged(NoteChangedEvent.updated(original, note("1", "Title", "some words here")));
+        noteSearchService.onNoteChanged(NoteChangedEvent.deleted(note("2", "Longer title", "more words")));
+
+        assertThat(meterRegistry.get("notes.search.index.bytes").gauge().value()).isEqualTo(bytes);
+        noteSearchService.onNoteChanged(NoteChangedEvent.deleted(original));
+        assertThat(meterRegistry.get("notes.search.index.bytes").gauge().value()).isZero();
+    }
+
+    @Test
+    void search_ShouldRejectPagesOutOfRange() {
+        assertThatThrownBy(() -> noteSearchService.search("words", null, -1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> noteSearchService.search("words", null, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> noteSearchService.search("words", null, Integer.MAX_VALUE, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,22 +1,33 @@
 package com.thenotesapp.api.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.CursorPageDto;
 import com.thenotesapp.api.dto.NoteDetailDto;
 import com.thenotesapp.api.dto.NoteSummaryDto;
 import com.thenotesapp.api.dto.NoteTextDto;
+import com.thenotesapp.api.dto.PatchNoteDto;
 import com.thenotesapp.api.model.Note;
 import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.TagMatch;
 import com.thenotesapp.api.repository.NoteRepository;
+import com.thenotesapp.api.stats.WordStatisticsFilter;
+import com.thenotesapp.api.storage.NoteTextCodec;
+import com.thenotesapp.api.storage.NoteTextStore;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -30,9 +41,12 @@ class NoteServiceTest {
     @Mock
     private NoteRepository noteRepository;
 
-    private ObjectMapper objectMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private GridFsOperations gridFs;
 
-    @InjectMocks
     private NoteService noteService;
 
     private Note note;
@@ -41,11 +55,10 @@ class NoteServiceTest {
 
     @BeforeEach
     void setUp() {
-        objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        noteService = new NoteService(noteRepository, objectMapper);
+        noteService = new NoteService(noteRepository, eventPublisher,
+                new NoteCache(new SimpleMeterRegistry(), false, 0, Duration.ZERO),
+                new NoteTextStore(gridFs, new NoteTextCodec(new SimpleMeterRegistry(), false, 0), false, 0),
+                new SimpleMeterRegistry());
 
         note = new Note();
         note.setId("1");
@@ -81,102 +94,257 @@ class NoteServiceTest {
         verify(noteRepository, times(1)).save(any(Note.class));
     }
 
+    @Test
+    void create_ShouldStoreWordFrequencies() {
+        ArgumentCaptor<Note> saved = ArgumentCaptor.forClass(Note.class);
+        when(noteRepository.save(saved.capture())).thenReturn(note);
+
+        noteService.create(createDto);
+
+        assertThat(saved.getValue().getWordFrequencies())
+                .containsEntry("this", 1L)
+                .containsEntry("note", 1L)
+                .hasSize(6);
+        verify(eventPublisher).publishEvent(NoteChangedEvent.created(note));
+    }
+
     @Test
     void update_ShouldUpdateExistingNote() {
-        when(noteRepository.findById("1")).thenReturn(Optional.of(note));
-        when(noteRepository.save(any(Note.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(noteRepository.findAndUpdateById(eq("1"), isNull(), any(Update.class))).thenReturn(Optional.of(note));
 
-        NoteDetailDto result = noteService.update("1", createDto);
+        NoteDetailDto result = noteService.update("1", createDto, null).value();
 
         assertThat(result).isNotNull();
         assertThat(result.getTitle()).isEqualTo(createDto.getTitle());
         assertThat(result.getText()).isEqualTo(createDto.getText());
-        verify(noteRepository).findById("1");
-        verify(noteRepository).save(any(Note.class));
+        assertThat(result.getCreatedDate()).isEqualTo(note.getCreatedDate());
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(noteRepository).findAndUpdateById(eq("1"), isNull(), update.capture());
+        verify(noteRepository, never()).save(any(Note.class));
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsKeys("title", "text", "tags", "wordFrequencies");
+        ArgumentCaptor<NoteChangedEvent> event = ArgumentCaptor.forClass(NoteChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().before()).isSameAs(note);
+        assertThat(event.getValue().after().getWordFrequencies()).containsEntry("test", 1L);
     }
 
     @Test
     void update_ShouldThrowIfNoteNotFound() {
-        when(noteRepository.findById("999")).thenReturn(Optional.empty());
+        when(noteRepository.findAndUpdateById(eq("999"), isNull(), any(Update.class))).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> noteService.update("999", createDto))
-                .isInstanceOf(RuntimeException.class)
+        assertThatThrownBy(() -> noteService.update("999", createDto, null))
+                .isInstanceOf(NoSuchElementException.class)
                 .hasMessageContaining("Note not found");
     }
 
     @Test
-    void deleteNote_ShouldDeleteIfExists() {
+    void update_ShouldRejectStaleVersion() {
+        when(noteRepository.findAndUpdateById(eq("1"), eq(List.of(2L)), any(Update.class))).thenReturn(Optional.empty());
         when(noteRepository.existsById("1")).thenReturn(true);
 
-        noteService.deleteNote("1");
+        assertThatThrownBy(() -> noteService.update("1", createDto, List.of(2L)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void patch_ShouldOnlySetProvidedFields() {
+        note.setWordFrequencies(Map.of("test", 1L));
+        when(noteRepository.findAndUpdateById(eq("1"), isNull(), any(Update.class))).thenReturn(Optional.of(note));
+
+        NoteSummaryDto result = noteService.patch("1", new PatchNoteDto(null, null, List.of(NoteTag.BUSINESS)), null).value();
+
+        assertThat(result.getTitle()).isEqualTo(note.getTitle());
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(noteRepository).findAndUpdateById(eq("1"), isNull(), update.capture());
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsOnlyKeys("tags", "tagMask")
+                .containsEntry("tagMask", NoteTag.BUSINESS.bit());
+        ArgumentCaptor<NoteChangedEvent> event = ArgumentCaptor.forClass(NoteChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().after().getTags()).containsExactly(NoteTag.BUSINESS);
+        assertThat(event.getValue().after().getWordFrequencies()).isEqualTo(note.getWordFrequencies());
+    }
+
+    @Test
+    void patch_ShouldRecomputeWordFrequenciesWhenTextChanges() {
+        when(noteRepository.findAndUpdateById(eq("1"), isNull(), any(Update.class))).thenReturn(Optional.of(note));
+
+        noteService.patch("1", new PatchNoteDto(null, "fresh fresh text", null), null);
 
-        verify(noteRepository).deleteById("1");
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(noteRepository).findAndUpdateById(eq("1"), isNull(), update.capture());
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsOnlyKeys("text", "wordFrequencies")
+                .containsEntry("wordFrequencies", Map.of("fresh", 2L, "text", 1L));
+    }
+
+    @Test
+    void deleteNote_ShouldDeleteIfExists() {
+        when(noteRepository.findAndRemoveById("1", null)).thenReturn(Optional.of(note));
+
+        noteService.deleteNote("1", null);
+
+        verify(noteRepository, never()).deleteById(anyString());
+        verify(eventPublisher).publishEvent(NoteChangedEvent.deleted(note));
     }
 
     @Test
     void deleteNote_ShouldThrowIfNotFound() {
-        when(noteRepository.existsById("999")).thenReturn(false);
+        when(noteRepository.findAndRemoveById("999", null)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> noteService.deleteNote("999"))
+        assertThatThrownBy(() -> noteService.deleteNote("999", null))
                 .isInstanceOf(NoSuchElementException.class)
                 .hasMessage("Note not found with id: 999");
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
     void getById_ShouldReturnSummaryDto() {
-        when(noteRepository.findById("1")).thenReturn(Optional.of(note));
+        note.setText(null);
+        when(noteRepository.findSummaryById("1")).thenReturn(Optional.of(note));
 
-        Optional<NoteSummaryDto> result = noteService.getById("1");
+        note.setVersion(3L);
+        Optional<Versioned<NoteSummaryDto>> result = noteService.getById("1");
 
         assertThat(result).isPresent();
-        assertThat(result.get().getTitle()).isEqualTo("Test title");
-        assertThat(result.get().getCreatedDate()).isNotNull();
+        assertThat(result.get().value().getTitle()).isEqualTo("Test title");
+        assertThat(result.get().value().getCreatedDate()).isNotNull();
+        assertThat(result.get().version()).isEqualTo(3L);
+        verify(noteRepository, never()).findById(anyString());
     }
 
     @Test
     void getById_ShouldReturnEmptyIfNotFound() {
-        when(noteRepository.findById("999")).thenReturn(Optional.empty());
+        when(noteRepository.findSummaryById("999")).thenReturn(Optional.empty());
 
-        Optional<NoteSummaryDto> result = noteService.getById("999");
+        Optional<Versioned<NoteSummaryDto>> result = noteService.getById("999");
 
         assertThat(result).isEmpty();
     }
 
     @Test
     void getTextById_ShouldReturnText() {
-        when(noteRepository.findById("1")).thenReturn(Optional.of(note));
+        when(noteRepository.findTextById("1")).thenReturn(Optional.of(note));
 
-        Optional<NoteTextDto> result = noteService.getTextById("1");
+        Optional<Versioned<NoteTextDto>> result = noteService.getTextById("1");
 
         assertThat(result).isPresent();
-        assertThat(result.get().getText()).isEqualTo("This is a test note text");
+        assertThat(result.get().value().getText()).isEqualTo("This is a test note text");
+        assertThat(result.get().version()).isZero();
+    }
+
+    @Test
+    void getStatisticsById_ShouldReturnStoredFrequencies() {
+        Note projected = new Note();
+        projected.setWordFrequencies(Map.of("hello", 2L));
+        when(noteRepository.findWordFrequenciesById("1")).thenReturn(Optional.of(projected));
+
+        Optional<Map<String, Long>> result = noteService.getStatisticsById("1", WordStatisticsFilter.NONE)
+                .map(Versioned::value);
+
+        assertThat(result).contains(Map.of("hello", 2L));
+        verify(noteRepository, never()).findTextById(anyString());
+    }
+
+    @Test
+    void getStatisticsById_ShouldFallBackToTextWhenNotBackfilled() {
+        when(noteRepository.findWordFrequenciesById("1")).thenReturn(Optional.of(new Note()));
+        when(noteRepository.findTextById("1")).thenReturn(Optional.of(note));
+
+        Optional<Map<String, Long>> result = noteService.getStatisticsById("1", WordStatisticsFilter.NONE)
+                .map(Versioned::value);
+
+        assertThat(result).isPresent();
+        assertThat(result.get()).containsEntry("test", 1L);
+    }
+
+    @Test
+    void getStatisticsById_ShouldApplyFilter() {
+        Note projected = new Note();
+        projected.setWordFrequencies(Map.of("the", 9L, "note", 4L, "meeting", 3L, "once", 1L));
+        when(noteRepository.findWordFrequenciesById("1")).thenReturn(Optional.of(projected));
+
+        Map<String, Long> result = noteService
+                .getStatisticsById("1", WordStatisticsFilter.of(2, 2L, List.of("THE")))
+                .orElseThrow()
+                .value();
+
+        assertThat(result.keySet()).containsExactly("note", "meeting");
+    }
+
+    @Test
+    void getStatisticsById_ShouldReturnEmptyIfNotFound() {
+        when(noteRepository.findWordFrequenciesById("999")).thenReturn(Optional.empty());
+
+        assertThat(noteService.getStatisticsById("999", WordStatisticsFilter.NONE)).isEmpty();
     }
 
     @Test
     void listNotes_ShouldReturnPagedNotes_NoTags() {
         Page<Note> notePage = new PageImpl<>(List.of(note));
 
-        when(noteRepository.findAll(any(Pageable.class))).thenReturn(notePage);
+        when(noteRepository.findSummariesBy(any(Pageable.class))).thenReturn(notePage);
 
-        Page<NoteSummaryDto> result = noteService.listNotes(null, 0, 10);
+        Page<NoteSummaryDto> result = noteService.listNotes(null, TagMatch.ANY, 0, 10);
 
         assertThat(result).isNotNull();
         assertThat(result.getTotalElements()).isEqualTo(1);
         assertThat(result.getContent().get(0).getTitle()).isEqualTo("Test title");
-        verify(noteRepository).findAll(any(Pageable.class));
+        verify(noteRepository).findSummariesBy(any(Pageable.class));
     }
 
     @Test
     void listNotes_ShouldReturnPagedNotes_WithTags() {
         Page<Note> notePage = new PageImpl<>(List.of(note));
 
-        when(noteRepository.findByTagsIn(anyCollection(), any(Pageable.class))).thenReturn(notePage);
+        when(noteRepository.findSummariesByTagMask(any(Document.class), any(Pageable.class))).thenReturn(notePage);
 
-        Page<NoteSummaryDto> result = noteService.listNotes(List.of(NoteTag.PERSONAL), 0, 10);
+        Page<NoteSummaryDto> result = noteService.listNotes(List.of(NoteTag.PERSONAL, NoteTag.IMPORTANT), TagMatch.ALL, 0, 10);
 
         assertThat(result).isNotNull();
         assertThat(result.getTotalElements()).isEqualTo(1);
-        verify(noteRepository).findByTagsIn(anyCollection(), any(Pageable.class));
+        verify(noteRepository).findSummariesByTagMask(
+                eq(new Document("$in", List.of(NoteTag.PERSONAL.bit() | NoteTag.IMPORTANT.bit(),
+                        NoteTag.BUSINESS.bit() | NoteTag.PERSONAL.bit() | NoteTag.IMPORTANT.bit()))), any(Pageable.class));
+    }
+
+    @Test
+    void listNotesAfter_ShouldReturnFirstSliceWithNextCursor() {
+        note.setId(new ObjectId().toHexString());
+        Slice<Note> slice = new SliceImpl<>(List.of(note), PageRequest.of(0, 1), true);
+
+        when(noteRepository.findAllBy(any(Pageable.class))).thenReturn(slice);
+
+        CursorPageDto<NoteSummaryDto> result = noteService.listNotesAfter(null, TagMatch.ANY, null, 1);
+
+        assertThat(result.getContent()).extracting(NoteSummaryDto::getTitle).containsExactly("Test title");
+        assertThat(result.getNext()).isNotNull();
+        NoteCursor cursor = NoteCursor.decode(result.getNext());
+        assertThat(cursor.id().toHexString()).isEqualTo(note.getId());
+        assertThat(cursor.createdDate()).isEqualTo(note.getCreatedDate());
+        verify(noteRepository, never()).count();
+    }
+
+    @Test
+    void listNotesAfter_ShouldSeekPastCursor_WithTags() {
+        NoteCursor cursor = new NoteCursor(LocalDateTime.now(), new ObjectId());
+        Slice<Note> slice = new SliceImpl<>(List.of(note), PageRequest.of(0, 10), false);
+
+        when(noteRepository.findByTagMaskAfter(any(Document.class), eq(cursor.createdDate()), eq(cursor.id()), any(Pageable.class)))
+                .thenReturn(slice);
+
+        CursorPageDto<NoteSummaryDto> result = noteService.listNotesAfter(List.of(NoteTag.PERSONAL), TagMatch.NONE, cursor.encode(), 10);
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getNext()).isNull();
+    }
+
+    @Test
+    void listNotesAfter_ShouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> noteService.listNotesAfter(null, TagMatch.ANY, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
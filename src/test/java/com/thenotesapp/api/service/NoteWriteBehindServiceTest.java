@@ -0,0 +1,186 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.dto.NoteDetailDto;
+import com.thenotesapp.api.dto.NoteWriteState;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.repository.NoteRepository;
+import com.thenotesapp.api.storage.NoteTextCodec;
+import com.thenotesapp.api.storage.NoteTextStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteWriteBehindServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private GridFsOperations gridFs;
+
+    private NoteWriteBehindService writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        NoteTextStore textStore = new NoteTextStore(gridFs, new NoteTextCodec(new SimpleMeterRegistry(), false, 0), false, 0);
+        NoteService noteService = new NoteService(noteRepository, eventPublisher,
+                new NoteCache(new SimpleMeterRegistry(), false, 0, Duration.ZERO), textStore, new SimpleMeterRegistry());
+        // a batch of three is written as soon as it is full, long before the linger passes
+        writeBehind = new NoteWriteBehindService(mongoTemplate, noteService, noteRepository, eventPublisher, textStore,
+                new SimpleMeterRegistry(), true, 10, 3, Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.stop();
+    }
+
+    private static CreateNoteDto createDto(String title) {
+        return new CreateNoteDto(title, "text of " + title, List.of(NoteTag.BUSINESS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueue_ShouldInsertFullBatchWithOneBulkWrite() throws Exception {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        writeBehind.start();
+
+        NoteWriteBehindService.QueuedNote first = writeBehind.enqueue(createDto("a"));
+        writeBehind.enqueue(createDto("b"));
+        NoteWriteBehindService.QueuedNote last = writeBehind.enqueue(createDto("c"));
+
+        NoteDetailDto written = last.written().get(5, TimeUnit.SECONDS);
+        assertThat(written.getId()).isEqualTo(last.id());
+        assertThat(written.getText()).isEqualTo("text of c");
+        assertThat(first.written().get(5, TimeUnit.SECONDS).getTitle()).isEqualTo("a");
+
+        ArgumentCaptor<List<Note>> batch = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(batch.capture());
+        assertThat(batch.getValue()).extracting(Note::getTitle).containsExactly("a", "b", "c");
+        assertThat(batch.getValue()).allSatisfy(note -> assertThat(note.getVersion()).isZero());
+        verify(bulkOperations).execute();
+        verify(eventPublisher, times(3)).publishEvent(any(NoteChangedEvent.class));
+    }
+
+    @Test
+    void enqueue_ShouldReportFailedWrites() throws Exception {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("Mongo is down"));
+        writeBehind.start();
+
+        NoteWriteBehindService.QueuedNote queued = writeBehind.enqueue(createDto("a"));
+        writeBehind.enqueue(createDto("b"));
+        writeBehind.enqueue(createDto("c"));
+
+        assertThatThrownBy(() -> queued.written().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("Mongo is down");
+        assertThat(writeBehind.status(queued.id())).hasValueSatisfying(status -> {
+            assertThat(status.getState()).isEqualTo(NoteWriteState.FAILED);
+            assertThat(status.getError()).contains("Mongo is down");
+        });
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void enqueue_ShouldKeepWritingAfterABatchFailedUnexpectedly() throws Exception {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList()))
+                .thenThrow(new IllegalStateException("codec failed"))
+                .thenReturn(bulkOperations);
+        writeBehind.start();
+
+        NoteWriteBehindService.QueuedNote failed = writeBehind.enqueue(createDto("a"));
+        writeBehind.enqueue(createDto("b"));
+        writeBehind.enqueue(createDto("c"));
+        assertThatThrownBy(() -> failed.written().get(5, TimeUnit.SECONDS))
+                .hasMessageContaining("codec failed");
+
+        writeBehind.enqueue(createDto("d"));
+        writeBehind.enqueue(createDto("e"));
+        NoteWriteBehindService.QueuedNote written = writeBehind.enqueue(createDto("f"));
+
+        assertThat(written.written().get(5, TimeUnit.SECONDS).getTitle()).isEqualTo("f");
+        assertThat(writeBehind.status(failed.id()))
+                .hasValueSatisfying(status -> assertThat(status.getState()).isEqualTo(NoteWriteState.FAILED));
+    }
+
+    @Test
+    void enqueue_ShouldFailPendingNotesWhenTheWriterDies() throws Exception {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenThrow(new AssertionError("writer died"));
+        writeBehind.start();
+
+        NoteWriteBehindService.QueuedNote queued = writeBehind.enqueue(createDto("a"));
+        writeBehind.enqueue(createDto("b"));
+        writeBehind.enqueue(createDto("c"));
+
+        assertThatThrownBy(() -> queued.written().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+        assertThat(writeBehind.isRunning()).isFalse();
+        assertThat(writeBehind.status(queued.id()))
+                .hasValueSatisfying(status -> assertThat(status.getState()).isEqualTo(NoteWriteState.FAILED));
+        assertThatThrownBy(() -> writeBehind.enqueue(createDto("d"))).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void stop_ShouldWriteQueuedNotesBeforeReturning() throws Exception {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        writeBehind.start();
+
+        NoteWriteBehindService.QueuedNote queued = writeBehind.enqueue(createDto("a"));
+        assertThat(writeBehind.status(queued.id()))
+                .hasValueSatisfying(status -> assertThat(status.getState()).isEqualTo(NoteWriteState.PENDING));
+        writeBehind.stop();
+
+        assertThat(queued.written()).isCompleted();
+        assertThatThrownBy(() -> writeBehind.enqueue(createDto("b"))).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void whenWritten_ShouldCompleteEmptyAfterTheStrictTimeout() throws Exception {
+        writeBehind = new NoteWriteBehindService(mongoTemplate, mock(NoteService.class), noteRepository, eventPublisher,
+                mock(NoteTextStore.class), new SimpleMeterRegistry(), true, 10, 3, Duration.ofMinutes(1), Duration.ofMillis(50));
+        NoteWriteBehindService.QueuedNote queued = new NoteWriteBehindService.QueuedNote("1", new CompletableFuture<>());
+
+        assertThat(writeBehind.whenWritten(queued).get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(queued.written()).isNotDone();
+    }
+}
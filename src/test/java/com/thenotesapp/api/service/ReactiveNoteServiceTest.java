@@ -0,0 +1,118 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.dto.CreateNoteDto;
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import com.thenotesapp.api.model.TagMatch;
+import com.thenotesapp.api.repository.NoteRepository;
+import com.thenotesapp.api.repository.ReactiveNoteRepository;
+import com.thenotesapp.api.storage.NoteTextCodec;
+import com.thenotesapp.api.storage.NoteTextStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveNoteServiceTest {
+
+    @Mock
+    private ReactiveNoteRepository noteRepository;
+
+    @Mock
+    private NoteRepository blockingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private GridFsOperations gridFs;
+
+    private ReactiveNoteService noteService;
+
+    @BeforeEach
+    void setUp() {
+        NoteCache noteCache = new NoteCache(new SimpleMeterRegistry(), false, 0, Duration.ZERO);
+        NoteTextStore textStore = new NoteTextStore(gridFs,
+                new NoteTextCodec(new SimpleMeterRegistry(), false, 0), false, 0);
+        noteService = new ReactiveNoteService(noteRepository,
+                new NoteService(blockingRepository, eventPublisher, noteCache, textStore,
+                        new SimpleMeterRegistry()),
+                eventPublisher, noteCache, textStore);
+    }
+
+    @Test
+    void create_ShouldSaveAndPublishEvent() {
+        when(noteRepository.save(any(Note.class))).thenAnswer(invocation -> {
+            Note saved = invocation.getArgument(0);
+            saved.setId("1");
+            return Mono.just(saved);
+        });
+
+        StepVerifier.create(noteService.create(new CreateNoteDto("Title", "hello hello", List.of(NoteTag.PERSONAL))))
+                .assertNext(created -> {
+                    assertThat(created.getId()).isEqualTo("1");
+                    assertThat(created.getText()).isEqualTo("hello hello");
+                })
+                .verifyComplete();
+
+        verify(eventPublisher).publishEvent(any(NoteChangedEvent.class));
+    }
+
+    @Test
+    void deleteNote_ShouldFailIfNotFound() {
+        when(noteRepository.findAndRemoveById("999", null)).thenReturn(Mono.empty());
+
+        StepVerifier.create(noteService.deleteNote("999", null))
+                .expectError(NoSuchElementException.class)
+                .verify();
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void listNotesAfter_ShouldReturnNextCursorOnlyWhenMoreNotesExist() {
+        LocalDateTime now = LocalDateTime.now();
+        Note first = summary(new ObjectId().toHexString(), now);
+        Note second = summary(new ObjectId().toHexString(), now.minusMinutes(1));
+        when(noteRepository.findSummariesBy(any(Pageable.class))).thenReturn(Flux.just(first, second));
+
+        StepVerifier.create(noteService.listNotesAfter(null, TagMatch.ANY, "", 1))
+                .assertNext(page -> {
+                    assertThat(page.getContent()).hasSize(1);
+                    assertThat(page.getNext())
+                            .isEqualTo(new NoteCursor(first.getCreatedDate(), new ObjectId(first.getId())).encode());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(noteService.listNotesAfter(null, TagMatch.ANY, "", 2))
+                .assertNext(page -> assertThat(page.getNext()).isNull())
+                .verifyComplete();
+    }
+
+    private static Note summary(String id, LocalDateTime createdDate) {
+        Note note = new Note();
+        note.setId(id);
+        note.setTitle("Title " + id);
+        note.setCreatedDate(createdDate);
+        return note;
+    }
+}
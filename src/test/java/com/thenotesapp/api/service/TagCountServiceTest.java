@@ -0,0 +1,99 @@
+package com.thenotesapp.api.service;
+
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.model.NoteTag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataMongoTest
+@Import(TagCountService.class)
+@Testcontainers
+class TagCountServiceTest {
+
+    @Container
+    static final MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.5");
+
+    @DynamicPropertySource
+    static void setMongoProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl);
+    }
+
+    @Autowired
+    private TagCountService tagCountService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void clean() {
+        mongoTemplate.remove(new Query(), Note.class);
+        tagCountService.reconcile();
+    }
+
+    private static Note note(String id, NoteTag... tags) {
+        return new Note(id, "Title", "text", LocalDateTime.now(), List.of(tags));
+    }
+
+    @Test
+    @DisplayName("Should count every tag once per note when reconciling with Mongo")
+    void reconcile_ShouldCountNotesPerTag() {
+        mongoTemplate.insert(note("1", NoteTag.IMPORTANT, NoteTag.IMPORTANT, NoteTag.BUSINESS));
+        mongoTemplate.insert(note("2", NoteTag.IMPORTANT));
+        mongoTemplate.insert(note("3"));
+
+        tagCountService.reconcile();
+
+        assertThat(tagCountService.counts())
+                .containsEntry(NoteTag.IMPORTANT, 2L)
+                .containsEntry(NoteTag.BUSINESS, 1L)
+                .containsEntry(NoteTag.PERSONAL, 0L);
+    }
+
+    @Test
+    @DisplayName("Should apply only the tags that changed")
+    void onNoteChanged_ShouldApplyTagDiff() {
+        Note created = note("1", NoteTag.IMPORTANT, NoteTag.BUSINESS);
+        Note updated = note("1", NoteTag.IMPORTANT, NoteTag.PERSONAL);
+
+        tagCountService.onNoteChanged(NoteChangedEvent.created(created));
+        tagCountService.onNoteChanged(NoteChangedEvent.updated(created, updated));
+
+        assertThat(tagCountService.counts())
+                .containsEntry(NoteTag.IMPORTANT, 1L)
+                .containsEntry(NoteTag.BUSINESS, 0L)
+                .containsEntry(NoteTag.PERSONAL, 1L);
+
+        tagCountService.onNoteChanged(NoteChangedEvent.deleted(updated));
+
+        assertThat(tagCountService.counts()).allSatisfy((tag, count) -> assertThat(count).isZero());
+    }
+
+    @Test
+    @DisplayName("Should correct counters that drifted from Mongo")
+    void reconcile_ShouldCorrectDrift() {
+        mongoTemplate.insert(note("1", NoteTag.PERSONAL));
+        tagCountService.onNoteChanged(NoteChangedEvent.created(note("2", NoteTag.BUSINESS)));
+
+        tagCountService.reconcile();
+
+        assertThat(tagCountService.counts())
+                .containsEntry(NoteTag.PERSONAL, 1L)
+                .containsEntry(NoteTag.BUSINESS, 0L);
+    }
+}
@@ -0,0 +1,77 @@
+package com.thenotesapp.api.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WordFrequencyCounterTest {
+
+    private static final String ALPHABET =
+            "abcxyzABCXYZабвяюАБВЯЮёЁ0189 \t\n\r\f\u000B  .,!?-'\"()İÄäßẞK😀";
+
+    // the regex implementation the counter replaces
+    private static Map<String, Long> legacyStatistics(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT)
+                        .replaceAll("[^a-zA-Zа-яА-Я0-9\\s]", "")
+                        .split("\\s+"))
+                .filter(w -> !w.isBlank())
+                .collect(Collectors.groupingBy(w -> w, Collectors.counting()));
+    }
+
+    @Test
+    @DisplayName("Should count words like the regex implementation")
+    void count_ShouldMatchLegacyImplementation() {
+        Random random = new Random(42);
+        int[] codePoints = ALPHABET.codePoints().toArray();
+
+        for (int run = 0; run < 500; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(400);
+            for (int i = 0; i < length; i++) {
+                text.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+            }
+
+            assertThat(WordFrequencyCounter.count(text))
+                    .as("text: %s", text)
+                    .isEqualTo(legacyStatistics(text.toString()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should order words by descending count")
+    void count_ShouldSortByFrequency() {
+        Map<String, Long> stats = WordFrequencyCounter.count("b a b c b a");
+
+        assertThat(stats.keySet()).containsExactly("b", "a", "c");
+        assertThat(stats.values()).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should keep punctuation inside words out and join the rest")
+    void count_ShouldDropNonWordCharacters() {
+        Map<String, Long> stats = WordFrequencyCounter.count("Don't stop-me, ПРИВЕТ привет!");
+
+        assertThat(stats)
+                .containsEntry("dont", 1L)
+                .containsEntry("stopme", 1L)
+                .containsEntry("привет", 2L)
+                .hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should grow past the initial table and be reusable after reset")
+    void count_ShouldHandleLargeVocabulary() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            text.append("w").append(i).append(' ');
+        }
+
+        assertThat(WordFrequencyCounter.count(text)).hasSize(100_000);
+        assertThat(WordFrequencyCounter.count("one two one")).containsOnly(
+                Map.entry("one", 2L), Map.entry("two", 1L));
+    }
+}
@@ -0,0 +1,45 @@
+package com.thenotesapp.api.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WordStatisticsFilterTest {
+
+    private final Map<String, Long> frequencies = WordFrequencyCounter.count(
+            "the the the the note note note meeting meeting call a a a a a");
+
+    @Test
+    @DisplayName("Should return the map untouched without parameters")
+    void apply_ShouldReturnSameMapWithoutParameters() {
+        assertThat(WordStatisticsFilter.of(null, null, null).apply(frequencies)).isSameAs(frequencies);
+    }
+
+    @Test
+    @DisplayName("Should keep only the top K words, most frequent first")
+    void apply_ShouldSelectTopK() {
+        Map<String, Long> top = WordStatisticsFilter.of(3, null, null).apply(frequencies);
+
+        assertThat(top.keySet()).containsExactly("a", "the", "note");
+    }
+
+    @Test
+    @DisplayName("Should drop stopwords case-insensitively and rare words")
+    void apply_ShouldFilterStopwordsAndMinCount() {
+        Map<String, Long> filtered = WordStatisticsFilter.of(null, 2L, List.of("A", "The")).apply(frequencies);
+
+        assertThat(filtered.keySet()).containsExactly("note", "meeting");
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive limit")
+    void of_ShouldRejectNonPositiveLimit() {
+        assertThatThrownBy(() -> WordStatisticsFilter.of(0, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
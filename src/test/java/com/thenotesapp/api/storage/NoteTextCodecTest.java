@@ -0,0 +1,71 @@
+package com.thenotesapp.api.storage;
+
+import com.thenotesapp.api.model.Note;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NoteTextCodecTest {
+
+    private static final String LONG_TEXT = "the quick brown fox jumps over the lazy dog. ".repeat(100)
+            + "Привет, мир 😀";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should compress long texts and decode them back")
+    void encode_ShouldRoundTripLongText() {
+        NoteTextCodec codec = new NoteTextCodec(meterRegistry, true, 1024);
+        Note note = noteWithText(LONG_TEXT);
+
+        codec.encode(note);
+
+        assertThat(note.getText()).isNull();
+        assertThat(note.getCompressedText()).isNotNull().hasSizeLessThan(LONG_TEXT.length());
+        assertThat(codec.decode(note)).isEqualTo(LONG_TEXT);
+        assertThat(meterRegistry.get("notes.text.compression.ratio").summary().mean()).isGreaterThan(1);
+        assertThat(meterRegistry.get("notes.text.compression.decode").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep texts below the threshold or when disabled as they are")
+    void encode_ShouldKeepShortTextAndDisabledMode() {
+        Note shortNote = noteWithText("short text");
+        new NoteTextCodec(meterRegistry, true, 1024).encode(shortNote);
+        Note disabledNote = noteWithText(LONG_TEXT);
+        new NoteTextCodec(meterRegistry, false, 1024).encode(disabledNote);
+
+        assertThat(shortNote.getText()).isEqualTo("short text");
+        assertThat(shortNote.getCompressedText()).isNull();
+        assertThat(disabledNote.getText()).isEqualTo(LONG_TEXT);
+        assertThat(disabledNote.getCompressedText()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should set one text field and unset the other")
+    void setEncodedText_ShouldUnsetTheOtherField() {
+        NoteTextCodec codec = new NoteTextCodec(meterRegistry, true, 1024);
+        Note longNote = noteWithText(LONG_TEXT);
+        codec.encode(longNote);
+        Note shortNote = noteWithText("short text");
+        codec.encode(shortNote);
+
+        Document compressed = codec.setEncodedText(new Update(), longNote).getUpdateObject();
+        Document plain = codec.setEncodedText(new Update(), shortNote).getUpdateObject();
+
+        assertThat(compressed.get("$set", Document.class)).containsOnlyKeys("compressedText");
+        assertThat(compressed.get("$unset", Document.class)).containsOnlyKeys("text");
+        assertThat(plain.get("$set", Document.class)).containsEntry("text", "short text");
+        assertThat(plain.get("$unset", Document.class)).containsOnlyKeys("compressedText");
+    }
+
+    private static Note noteWithText(String text) {
+        Note note = new Note();
+        note.setText(text);
+        return note;
+    }
+}
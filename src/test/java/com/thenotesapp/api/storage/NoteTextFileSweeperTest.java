@@ -0,0 +1,81 @@
+package com.thenotesapp.api.storage;
+
+import com.thenotesapp.api.model.Note;
+import com.thenotesapp.api.service.NoteChangedEvent;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteTextFileSweeperTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private GridFsOperations gridFs;
+
+    private NoteTextFileSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new NoteTextFileSweeper(mongoTemplate, gridFs, "fs", Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Should retire the file of a deleted note or a replaced text only, without deleting it")
+    void onNoteChanged_ShouldRetireReplacedFiles() {
+        ObjectId kept = new ObjectId();
+        ObjectId replaced = new ObjectId();
+
+        sweeper.onNoteChanged(NoteChangedEvent.updated(noteWithFile(kept), noteWithFile(kept)));
+        verifyNoInteractions(mongoTemplate);
+
+        sweeper.onNoteChanged(NoteChangedEvent.updated(noteWithFile(replaced), new Note()));
+        sweeper.onNoteChanged(NoteChangedEvent.deleted(noteWithFile(kept)));
+        verify(mongoTemplate).updateFirst(eq(Query.query(Criteria.where("_id").is(replaced))), any(Update.class), eq("fs.files"));
+        verify(mongoTemplate).updateFirst(eq(Query.query(Criteria.where("_id").is(kept))), any(Update.class), eq("fs.files"));
+        verify(gridFs, never()).delete(any(Query.class));
+    }
+
+    @Test
+    @DisplayName("Should delete only files retired longer than the grace period ago")
+    void sweep_ShouldDeleteFilesRetiredBeforeTheGracePeriod() {
+        long started = System.currentTimeMillis();
+
+        sweeper.sweep();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(gridFs).delete(query.capture());
+        Date retiredBefore = query.getValue().getQueryObject().get("metadata.retiredAt", Document.class).get("$lt", Date.class);
+        assertThat(retiredBefore.getTime()).isBetween(started - Duration.ofMinutes(10).toMillis(),
+                System.currentTimeMillis() - Duration.ofMinutes(10).toMillis());
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), anyString());
+    }
+
+    private static Note noteWithFile(ObjectId fileId) {
+        Note note = new Note();
+        note.setTextFileId(fileId);
+        return note;
+    }
+}
@@ -0,0 +1,64 @@
+package com.thenotesapp.api.storage;
+
+import com.thenotesapp.api.model.Note;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteTextStoreTest {
+
+    @Mock
+    private GridFsOperations gridFs;
+
+    private NoteTextStore textStore;
+
+    @BeforeEach
+    void setUp() {
+        textStore = new NoteTextStore(gridFs, new NoteTextCodec(new SimpleMeterRegistry(), true, 64), true, 1024);
+    }
+
+    @Test
+    @DisplayName("Should upload texts above the chunking threshold and compress shorter long ones")
+    void encode_ShouldPickStorageBySize() {
+        ObjectId fileId = new ObjectId();
+        when(gridFs.store(any(InputStream.class), anyString(), anyString())).thenReturn(fileId);
+        Note huge = noteWithText("x".repeat(2048));
+        Note medium = noteWithText("y".repeat(512));
+
+        textStore.encode(huge);
+        textStore.encode(medium);
+
+        assertThat(huge.getText()).isNull();
+        assertThat(huge.getTextFileId()).isEqualTo(fileId);
+        assertThat(medium.getText()).isNull();
+        assertThat(medium.getCompressedText()).isNotNull();
+        assertThat(medium.getTextFileId()).isNull();
+        verify(gridFs, times(1)).store(any(InputStream.class), anyString(), anyString());
+
+        Document update = textStore.setEncodedText(new Update(), huge).getUpdateObject();
+        assertThat(update.get("$set", Document.class)).containsOnlyKeys("textFileId");
+        assertThat(update.get("$unset", Document.class)).containsOnlyKeys("text", "compressedText");
+    }
+
+    private static Note noteWithText(String text) {
+        Note note = new Note();
+        note.setText(text);
+        return note;
+    }
+}